@@ -83,9 +83,11 @@ public class Invasion2
         DebugRenderer.initialize();
 
         ShaderManager.register(Shader.create("legacy.default", AssetPath.create("invasion2", "shader/legacy/default")));
+        ShaderManager.register(Shader.create("legacy.packed", AssetPath.create("invasion2", "shader/legacy/packed")));
         ShaderManager.register(Shader.create("ui", AssetPath.create("invasion2", "shader/ui")));
         ShaderManager.register(Shader.create("pass.passthrough", AssetPath.create("invasion2", "shader/pass/passthrough")));
         ShaderManager.register(Shader.create("pass.geometry", AssetPath.create("invasion2", "shader/pass/geometry")));
+        ShaderManager.register(Shader.create("pass.geometry_packed", AssetPath.create("invasion2", "shader/pass/geometryPacked")));
         ShaderManager.register(Shader.create("ssao.default", AssetPath.create("invasion2", "shader/ssao/default")));
         ShaderManager.register(Shader.create("ssao.blur", AssetPath.create("invasion2", "shader/ssao/blur")));
         ShaderManager.register(Shader.create("ssao.conclusion", AssetPath.create("invasion2", "shader/ssao/conclusion")));
@@ -189,7 +191,10 @@ public class Invasion2
     {
         Time.update();
 
-        World.getLocalWorld().chunkLoader = Objects.requireNonNull(GameObjectManager.get("default.player")).getTransform();
+        GameObject player = Objects.requireNonNull(GameObjectManager.get("default.player"));
+
+        World.getLocalWorld().chunkLoader = player.getTransform();
+        World.getLocalWorld().chunkLoaderView = player.getComponentNotNull(EntityPlayer.class).getCamera().getGameObject().getTransform();
 
         GameObjectManager.updateMainThread();
         GameObjectManager.update();
@@ -353,6 +358,7 @@ public class Invasion2
 
         ShaderManager.uninitialize();
         TextureManager.uninitialize();
+        PackedVertexTable.uninitialize();
 
         DebugRenderer.uninitialize();
 
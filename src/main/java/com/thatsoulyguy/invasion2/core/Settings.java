@@ -15,12 +15,55 @@ public class Settings
     public static final Setting<Float> UI_SCALE = new Setting<>(1.5f);
     public static final Setting<Boolean> USE_ADVANCED_RENDERING_FEATURES = new Setting<>(true);
     public static final Setting<Shader> DEFAULT_RENDERING_SHADER = new Setting<>(null);
+    public static final Setting<Shader> PACKED_RENDERING_SHADER = new Setting<>(null);
+
+    /**
+     * Whether chunk meshes merge adjacent faces into larger quads. Optional and off by default: merged meshes use fewer
+     * vertices, but their quads don't map to single faces, so a chunk goes back to one quad per face the first time it is edited.
+     */
+    public static final Setting<Boolean> GREEDY_MESHING = new Setting<>(false);
+
+    public static final Setting<Boolean> BAKED_AMBIENT_OCCLUSION = new Setting<>(true);
+
+    /**
+     * Forces screen space ambient occlusion on. It also runs whenever baked ambient occlusion is off; see {@link #isScreenSpaceAmbientOcclusionEnabled()}.
+     */
+    public static final Setting<Boolean> SCREEN_SPACE_AMBIENT_OCCLUSION = new Setting<>(false);
+
+    /**
+     * The number of columns loaded around the player in each direction; the most the render distance governor will use.
+     */
+    public static final Setting<Integer> RENDER_DISTANCE = new Setting<>(5);
+
+    /**
+     * The number of columns around the player whose chunks have active colliders. Capped at the render distance.
+     */
+    public static final Setting<Integer> SIMULATION_DISTANCE = new Setting<>(3);
+
+    public static final Setting<Boolean> ADAPTIVE_RENDER_DISTANCE = new Setting<>(false);
+    public static final Setting<Float> TARGET_FRAME_TIME = new Setting<>(1000.0f / 60.0f);
+    public static final Setting<Integer> TARGET_PENDING_GENERATIONS = new Setting<>(32);
+
+    /**
+     * The number of seconds between saves of edited chunks.
+     */
+    public static final Setting<Float> AUTOSAVE_INTERVAL = new Setting<>(30.0f);
 
     private Settings() { }
 
     public static void initialize()
     {
         DEFAULT_RENDERING_SHADER.setValue(USE_ADVANCED_RENDERING_FEATURES.value ? ((GeometryRenderPass) Objects.requireNonNull(RenderPassManager.get(GeometryRenderPass.class))).getGeometryShader() : Objects.requireNonNull(ShaderManager.get("legacy.default")));
+        PACKED_RENDERING_SHADER.setValue(Objects.requireNonNull(ShaderManager.get(USE_ADVANCED_RENDERING_FEATURES.value ? "pass.geometry_packed" : "legacy.packed")));
+    }
+
+    /**
+     * Checks whether the SSAO passes should run: when baked ambient occlusion is off, so the world isn't left without any,
+     * or when {@link #SCREEN_SPACE_AMBIENT_OCCLUSION} forces it on.
+     */
+    public static boolean isScreenSpaceAmbientOcclusionEnabled()
+    {
+        return SCREEN_SPACE_AMBIENT_OCCLUSION.value || !BAKED_AMBIENT_OCCLUSION.value;
     }
 
     public static class Setting<T>
@@ -4,6 +4,7 @@ import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
 import com.thatsoulyguy.invasion2.block.BlockRegistry;
 import com.thatsoulyguy.invasion2.collider.Collider;
 import com.thatsoulyguy.invasion2.collider.colliders.BoxCollider;
+import com.thatsoulyguy.invasion2.core.Settings;
 import com.thatsoulyguy.invasion2.core.Time;
 import com.thatsoulyguy.invasion2.entity.Entity;
 import com.thatsoulyguy.invasion2.input.*;
@@ -207,6 +208,9 @@ public class EntityPlayer extends Entity
         if (InputManager.getKeyState(KeyCode.K, KeyState.PRESSED))
             setCraftingTableMenuActive(true);
 
+        if (InputManager.getKeyState(KeyCode.F6, KeyState.PRESSED))
+            Settings.GREEDY_MESHING.setValue(!Settings.GREEDY_MESHING.getValue());
+
         if (InputManager.getKeyState(KeyCode.E, KeyState.PRESSED) && !pauseMenu.getActive() && !craftingTableMenu.isActive())
         {
             if (!inventoryMenu.getSurvivalMenuActive())
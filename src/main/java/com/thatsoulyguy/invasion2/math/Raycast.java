@@ -5,7 +5,6 @@ import com.thatsoulyguy.invasion2.block.BlockRegistry;
 import com.thatsoulyguy.invasion2.collider.Collider;
 import com.thatsoulyguy.invasion2.collider.ColliderManager;
 import com.thatsoulyguy.invasion2.util.CoordinateHelper;
-import com.thatsoulyguy.invasion2.world.Chunk;
 import com.thatsoulyguy.invasion2.world.World;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -74,23 +73,18 @@ public class Raycast
         tMax.y = tMax.y < 0 ? Float.MAX_VALUE : tMax.y;
         tMax.z = tMax.z < 0 ? Float.MAX_VALUE : tMax.z;
 
+        World world = World.getLocalWorld();
+
         while (true)
         {
-            Chunk chunk = World.getLocalWorld().getChunk(CoordinateHelper.worldToChunkCoordinates(new Vector3f(currentVoxel.x, currentVoxel.y, currentVoxel.z)));
+            short blockId = world.getBlock(currentVoxel.x, currentVoxel.y, currentVoxel.z);
 
-            if (chunk != null)
+            if (blockId != -1 && blockId != BlockRegistry.BLOCK_AIR.getId())
             {
-                Vector3i blockPosition = new Vector3i(currentVoxel.x, currentVoxel.y, currentVoxel.z);
-
-                short blockId = chunk.getBlock(CoordinateHelper.worldToBlockCoordinates(new Vector3f(blockPosition)));
+                VoxelHit hitResult = doRaycast(origin, normalizedDirection, maxDistance, currentVoxel);
 
-                if (blockId != -1 && blockId != BlockRegistry.BLOCK_AIR.getId())
-                {
-                    VoxelHit hitResult = doRaycast(origin, normalizedDirection, maxDistance, currentVoxel);
-
-                    if (hitResult != null)
-                        return hitResult;
-                }
+                if (hitResult != null)
+                    return hitResult;
             }
 
             if (tMax.x < tMax.y)
@@ -0,0 +1,109 @@
+package com.thatsoulyguy.invasion2.noise;
+
+import com.thatsoulyguy.invasion2.annotation.Static;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Samples a 3D density function over a cube of blocks, either at every block or on a coarser lattice that is
+ * trilinearly interpolated, as set by a {@link DensitySampling}.
+ * <p>
+ * Annotates: {@code @Static}
+ */
+@Static
+public class DensitySampler
+{
+    /**
+     * The lattice of the interpolated modes, per thread; large enough for any spacing of a 16 block cube.
+     */
+    private static final ThreadLocal<float[]> LATTICE = ThreadLocal.withInitial(() -> new float[17 * 17 * 17]);
+
+    private DensitySampler() { }
+
+    /**
+     * Fills a cube with a density function.
+     *
+     * @param density Fills a grid with the function, like {@link OpenSimplex2#noise3_ImproveXZ_Grid}
+     * @param originX The x coordinate of the first block, in the function's space
+     * @param originY The y coordinate of the first block, in the function's space
+     * @param originZ The z coordinate of the first block, in the function's space
+     * @param step The distance between neighboring blocks, in the function's space
+     * @param size The number of blocks along each axis; must be a multiple of the sampling's spacing
+     * @param sampling How densely to sample the function
+     * @param output Receives the density of block (x, y, z) at [(x * size + y) * size + z]
+     */
+    public static void sample(@NotNull DensityGrid density, double originX, double originY, double originZ, double step, int size, @NotNull DensitySampling sampling, float @NotNull [] output)
+    {
+        int spacing = sampling.getSpacing();
+
+        if (spacing == 1)
+        {
+            density.fill(originX, originY, originZ, step, size, size, size, output);
+            return;
+        }
+
+        if (size % spacing != 0)
+            throw new IllegalArgumentException("A size of " + size + " can't be sampled every " + spacing + " blocks");
+
+        int points = size / spacing + 1;
+
+        float[] lattice = points * points * points <= 17 * 17 * 17 ? LATTICE.get() : new float[points * points * points];
+
+        density.fill(originX, originY, originZ, step * spacing, points, points, points, lattice);
+
+        int cells = points - 1;
+        float inverseSpacing = 1.0f / spacing;
+
+        for (int latticeX = 0; latticeX < cells; latticeX++)
+        {
+            for (int latticeY = 0; latticeY < cells; latticeY++)
+            {
+                int index00 = (latticeX * points + latticeY) * points;
+                int index01 = (latticeX * points + latticeY + 1) * points;
+                int index10 = ((latticeX + 1) * points + latticeY) * points;
+                int index11 = ((latticeX + 1) * points + latticeY + 1) * points;
+
+                for (int latticeZ = 0; latticeZ < cells; latticeZ++)
+                {
+                    float corner000 = lattice[index00 + latticeZ], corner001 = lattice[index00 + latticeZ + 1];
+                    float corner010 = lattice[index01 + latticeZ], corner011 = lattice[index01 + latticeZ + 1];
+                    float corner100 = lattice[index10 + latticeZ], corner101 = lattice[index10 + latticeZ + 1];
+                    float corner110 = lattice[index11 + latticeZ], corner111 = lattice[index11 + latticeZ + 1];
+
+                    for (int offsetX = 0; offsetX < spacing; offsetX++)
+                    {
+                        float fractionX = offsetX * inverseSpacing;
+
+                        for (int offsetY = 0; offsetY < spacing; offsetY++)
+                        {
+                            float fractionY = offsetY * inverseSpacing;
+
+                            float near = lerp(lerp(corner000, corner010, fractionY), lerp(corner100, corner110, fractionY), fractionX);
+                            float far = lerp(lerp(corner001, corner011, fractionY), lerp(corner101, corner111, fractionY), fractionX);
+                            float delta = (far - near) * inverseSpacing;
+
+                            int index = ((latticeX * spacing + offsetX) * size + latticeY * spacing + offsetY) * size + latticeZ * spacing;
+
+                            for (int offsetZ = 0; offsetZ < spacing; offsetZ++)
+                                output[index + offsetZ] = near + delta * offsetZ;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static float lerp(float from, float to, float fraction)
+    {
+        return from + (to - from) * fraction;
+    }
+
+    /**
+     * Fills a grid with a density function; sample (i, j, k) is taken at (originX + i * step, originY + j * step,
+     * originZ + k * step) and stored at output[(i * height + j) * depth + k].
+     */
+    @FunctionalInterface
+    public interface DensityGrid
+    {
+        void fill(double originX, double originY, double originZ, double step, int width, int height, int depth, float @NotNull [] output);
+    }
+}
@@ -0,0 +1,39 @@
+package com.thatsoulyguy.invasion2.noise;
+
+/**
+ * How densely {@link DensitySampler} samples a 3D density function. Anything coarser than {@link #FULL} samples a lattice
+ * with the given spacing and fills in the blocks between by trilinear interpolation, which is only close to the real
+ * function where it's smooth at that spacing.
+ */
+public enum DensitySampling
+{
+    /**
+     * Every block is sampled.
+     */
+    FULL(1),
+
+    /**
+     * Every 2nd block along each axis is sampled, about 1/6 of the samples for a chunk.
+     */
+    HIGH(2),
+
+    /**
+     * Every 4th block along each axis is sampled, about 1/30 of the samples for a chunk.
+     */
+    LOW(4);
+
+    private final int spacing;
+
+    DensitySampling(int spacing)
+    {
+        this.spacing = spacing;
+    }
+
+    /**
+     * Gets the number of blocks between samples along each axis.
+     */
+    public int getSpacing()
+    {
+        return spacing;
+    }
+}
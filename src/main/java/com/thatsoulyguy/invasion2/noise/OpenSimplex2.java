@@ -199,6 +199,108 @@ public class OpenSimplex2
         return noise2_UnskewedBase(seed, yy + xx, yy - xx);
     }
 
+    /**
+     * Fills a grid with 2D Simplex noise, standard lattice orientation.
+     * Sample (i, j) is taken at (originX + i * step, originY + j * step) and stored at output[i + j * width].
+     * Each row's Y coordinate is computed once and shared by every sample in it. The lattice base is carried
+     * along the row and only floored again once a sample leaves its cell, and the gradients of the cell's
+     * vertices are looked up once and shared by the consecutive samples in it.
+     * Gives the same values as calling noise2 per sample.
+     */
+    public static void noise2_Grid(long seed, double originX, double originY, double step, int width, int height, float[] output) {
+
+        if (output.length < width * height) {
+            throw new IllegalArgumentException("Output holds " + output.length + " samples, but the grid has " + width * height);
+        }
+
+        // The gradients of the four vertices of the current cell.
+        float g00x = 0, g00y = 0, g11x = 0, g11y = 0, g01x = 0, g01y = 0, g10x = 0, g10y = 0;
+
+        for (int j = 0; j < height; j++) {
+            double y = originY + j * step;
+            int row = j * width;
+
+            // Base points of the row's first sample, carried along the row.
+            double s0 = SKEW_2D * (originX + y);
+            int xsb = fastFloor(originX + s0), ysb = fastFloor(y + s0);
+            boolean cellChanged = true;
+
+            for (int i = 0; i < width; i++) {
+                double x = originX + i * step;
+
+                // Get points for A2* lattice
+                double s = SKEW_2D * (x + y);
+                double xs = x + s, ys = y + s;
+
+                // Get base points and offsets, flooring again only where they may have changed.
+                double xsd = xs - xsb, ysd = ys - ysb;
+                if (xsd < 0 || xsd >= 1) {
+                    xsb = fastFloor(xs);
+                    xsd = xs - xsb;
+                    cellChanged = true;
+                }
+                if (ysd < 0 || ysd >= 1) {
+                    ysb = fastFloor(ys);
+                    ysd = ys - ysb;
+                    cellChanged = true;
+                }
+                float xi = (float)xsd, yi = (float)ysd;
+
+                if (cellChanged) {
+                    long xsbp = xsb * PRIME_X, ysbp = ysb * PRIME_Y;
+
+                    int gi = gradIndex(seed, xsbp, ysbp);
+                    g00x = GRADIENTS_2D[gi | 0]; g00y = GRADIENTS_2D[gi | 1];
+                    gi = gradIndex(seed, xsbp + PRIME_X, ysbp + PRIME_Y);
+                    g11x = GRADIENTS_2D[gi | 0]; g11y = GRADIENTS_2D[gi | 1];
+                    gi = gradIndex(seed, xsbp, ysbp + PRIME_Y);
+                    g01x = GRADIENTS_2D[gi | 0]; g01y = GRADIENTS_2D[gi | 1];
+                    gi = gradIndex(seed, xsbp + PRIME_X, ysbp);
+                    g10x = GRADIENTS_2D[gi | 0]; g10y = GRADIENTS_2D[gi | 1];
+
+                    cellChanged = false;
+                }
+
+                // The rest is noise2_UnskewedBase, with the gradients from the cell.
+                float t = (xi + yi) * (float)UNSKEW_2D;
+                float dx0 = xi + t, dy0 = yi + t;
+
+                float value = 0;
+                float a0 = RSQUARED_2D - dx0 * dx0 - dy0 * dy0;
+                if (a0 > 0) {
+                    value = (a0 * a0) * (a0 * a0) * (g00x * dx0 + g00y * dy0);
+                }
+
+                float a1 = (float)(2 * (1 + 2 * UNSKEW_2D) * (1 / UNSKEW_2D + 2)) * t + ((float)(-2 * (1 + 2 * UNSKEW_2D) * (1 + 2 * UNSKEW_2D)) + a0);
+                if (a1 > 0) {
+                    float dx1 = dx0 - (float)(1 + 2 * UNSKEW_2D);
+                    float dy1 = dy0 - (float)(1 + 2 * UNSKEW_2D);
+                    value += (a1 * a1) * (a1 * a1) * (g11x * dx1 + g11y * dy1);
+                }
+
+                if (dy0 > dx0) {
+                    float dx2 = dx0 - (float)UNSKEW_2D;
+                    float dy2 = dy0 - (float)(UNSKEW_2D + 1);
+                    float a2 = RSQUARED_2D - dx2 * dx2 - dy2 * dy2;
+                    if (a2 > 0) {
+                        value += (a2 * a2) * (a2 * a2) * (g01x * dx2 + g01y * dy2);
+                    }
+                }
+                else
+                {
+                    float dx2 = dx0 - (float)(UNSKEW_2D + 1);
+                    float dy2 = dy0 - (float)UNSKEW_2D;
+                    float a2 = RSQUARED_2D - dx2 * dx2 - dy2 * dy2;
+                    if (a2 > 0) {
+                        value += (a2 * a2) * (a2 * a2) * (g10x * dx2 + g10y * dy2);
+                    }
+                }
+
+                output[row + i] = value;
+            }
+        }
+    }
+
     /**
      * 2D Simplex noise base.
      */
@@ -300,6 +402,167 @@ public class OpenSimplex2
         return noise3_UnrotatedBase(seed, xr, yr, zr);
     }
 
+    /**
+     * Fills a grid with 3D OpenSimplex2 noise, oriented like noise3_ImproveXZ with Y vertical.
+     * Sample (i, j, k) is taken at (originX + i * step, originY + j * step, originZ + k * step)
+     * and stored at output[(i * height + j) * depth + k], the same order as a [x][y][z] array.
+     * The XZ part of the rotation is computed once per vertical column of samples and shared by every sample in it.
+     * Going up a column moves along the lattice diagonal, so the rounded lattice base is carried from sample to sample
+     * and only rounded again once the sample is half a unit away from it. The gradients of the eight points the two
+     * lattice copies can pick depend only on that base and the octant of the cell the sample is in, so they are
+     * looked up once per octant and shared by the consecutive samples in it.
+     * Gives the same values as calling noise3_ImproveXZ per sample.
+     */
+    public static void noise3_ImproveXZ_Grid(long seed, double originX, double originY, double originZ, double step, int width, int height, int depth, float[] output) {
+
+        if (output.length < width * height * depth) {
+            throw new IllegalArgumentException("Output holds " + output.length + " samples, but the grid has " + width * height * depth);
+        }
+
+        // The gradients of the points around the current octant: the closest point of each lattice copy, then its x, y and z neighbors.
+        float[] gradients = new float[8 * 4];
+
+        for (int i = 0; i < width; i++) {
+            double x = originX + i * step;
+
+            for (int k = 0; k < depth; k++) {
+                double z = originZ + k * step;
+
+                // Shared by the whole vertical column.
+                double xz = x + z;
+                double s2 = xz * ROTATE_3D_ORTHOGONALIZER;
+                double xzr = xz * -ROOT3OVER3;
+                double xs = x + s2, zs = z + s2;
+
+                double yy0 = originY * ROOT3OVER3;
+                int xrb = fastRound(xs + yy0), yrb = fastRound(xzr + yy0), zrb = fastRound(zs + yy0);
+                int octant = -1;
+
+                for (int j = 0; j < height; j++) {
+                    double yy = (originY + j * step) * ROOT3OVER3;
+                    double xr = xs + yy, yr = xzr + yy, zr = zs + yy;
+
+                    // Carry the base points over, rounding again only where they may have changed.
+                    double xrd = xr - xrb, yrd = yr - yrb, zrd = zr - zrb;
+                    if (xrd >= 0.5 || xrd <= -0.5) {
+                        xrb = fastRound(xr);
+                        xrd = xr - xrb;
+                        octant = -1;
+                    }
+                    if (yrd >= 0.5 || yrd <= -0.5) {
+                        yrb = fastRound(yr);
+                        yrd = yr - yrb;
+                        octant = -1;
+                    }
+                    if (zrd >= 0.5 || zrd <= -0.5) {
+                        zrb = fastRound(zr);
+                        zrd = zr - zrb;
+                        octant = -1;
+                    }
+                    float xri = (float)xrd, yri = (float)yrd, zri = (float)zrd;
+
+                    // -1 if positive, 1 if negative.
+                    int xNSign = (int)(-1.0f - xri) | 1, yNSign = (int)(-1.0f - yri) | 1, zNSign = (int)(-1.0f - zri) | 1;
+
+                    int signs = (xNSign & 2) | (yNSign & 2) << 1 | (zNSign & 2) << 2;
+                    if (signs != octant) {
+                        fillGradients(gradients, seed, xrb, yrb, zrb, xNSign, yNSign, zNSign);
+                        octant = signs;
+                    }
+
+                    // The rest is noise3_UnrotatedBase, with the gradients from the octant.
+                    float ax0 = xNSign * -xri, ay0 = yNSign * -yri, az0 = zNSign * -zri;
+
+                    float value = 0;
+                    float a = (RSQUARED_3D - xri * xri) - (yri * yri + zri * zri);
+                    for (int l = 0, g = 0; ; l++, g += 16) {
+
+                        // Closest point on cube.
+                        if (a > 0) {
+                            value += (a * a) * (a * a) * (gradients[g] * xri + gradients[g + 1] * yri + gradients[g + 2] * zri);
+                        }
+
+                        // Second-closest point.
+                        if (ax0 >= ay0 && ax0 >= az0) {
+                            float b = a + ax0 + ax0;
+                            if (b > 1) {
+                                b -= 1;
+                                value += (b * b) * (b * b) * (gradients[g + 4] * (xri + xNSign) + gradients[g + 5] * yri + gradients[g + 6] * zri);
+                            }
+                        }
+                        else if (ay0 > ax0 && ay0 >= az0) {
+                            float b = a + ay0 + ay0;
+                            if (b > 1) {
+                                b -= 1;
+                                value += (b * b) * (b * b) * (gradients[g + 8] * xri + gradients[g + 9] * (yri + yNSign) + gradients[g + 10] * zri);
+                            }
+                        }
+                        else
+                        {
+                            float b = a + az0 + az0;
+                            if (b > 1) {
+                                b -= 1;
+                                value += (b * b) * (b * b) * (gradients[g + 12] * xri + gradients[g + 13] * yri + gradients[g + 14] * (zri + zNSign));
+                            }
+                        }
+
+                        if (l == 1) break;
+
+                        ax0 = 0.5f - ax0;
+                        ay0 = 0.5f - ay0;
+                        az0 = 0.5f - az0;
+
+                        xri = xNSign * ax0;
+                        yri = yNSign * ay0;
+                        zri = zNSign * az0;
+
+                        a += (0.75f - ax0) - (ay0 + az0);
+
+                        xNSign = -xNSign;
+                        yNSign = -yNSign;
+                        zNSign = -zNSign;
+                    }
+
+                    output[(i * height + j) * depth + k] = value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the gradients of the points noise3_UnrotatedBase can pick in one octant of a cell,
+     * four floats per point: the closest point of the first lattice copy and its x, y and z neighbors,
+     * then the same for the second copy.
+     */
+    private static void fillGradients(float[] gradients, long seed, int xrb, int yrb, int zrb, int xNSign, int yNSign, int zNSign) {
+        long xrbp = xrb * PRIME_X, yrbp = yrb * PRIME_Y, zrbp = zrb * PRIME_Z;
+
+        for (int l = 0, g = 0; l < 2; l++, g += 16) {
+            fillGradient(gradients, g, seed, xrbp, yrbp, zrbp);
+            fillGradient(gradients, g + 4, seed, xrbp - xNSign * PRIME_X, yrbp, zrbp);
+            fillGradient(gradients, g + 8, seed, xrbp, yrbp - yNSign * PRIME_Y, zrbp);
+            fillGradient(gradients, g + 12, seed, xrbp, yrbp, zrbp - zNSign * PRIME_Z);
+
+            // Same updates as noise3_UnrotatedBase makes for the other lattice copy.
+            xrbp += (xNSign >> 1) & PRIME_X;
+            yrbp += (yNSign >> 1) & PRIME_Y;
+            zrbp += (zNSign >> 1) & PRIME_Z;
+
+            xNSign = -xNSign;
+            yNSign = -yNSign;
+            zNSign = -zNSign;
+
+            seed ^= SEED_FLIP_3D;
+        }
+    }
+
+    private static void fillGradient(float[] gradients, int offset, long seed, long xrvp, long yrvp, long zrvp) {
+        int gi = gradIndex(seed, xrvp, yrvp, zrvp);
+        gradients[offset] = GRADIENTS_3D[gi | 0];
+        gradients[offset + 1] = GRADIENTS_3D[gi | 1];
+        gradients[offset + 2] = GRADIENTS_3D[gi | 2];
+    }
+
     /**
      * 3D OpenSimplex2 noise, fallback rotation option
      * Use noise3_ImproveXY or noise3_ImproveXZ instead, wherever appropriate.
@@ -570,19 +833,27 @@ public class OpenSimplex2
      */
 
     private static float grad(long seed, long xsvp, long ysvp, float dx, float dy) {
+        int gi = gradIndex(seed, xsvp, ysvp);
+        return GRADIENTS_2D[gi | 0] * dx + GRADIENTS_2D[gi | 1] * dy;
+    }
+
+    private static int gradIndex(long seed, long xsvp, long ysvp) {
         long hash = seed ^ xsvp ^ ysvp;
         hash *= HASH_MULTIPLIER;
         hash ^= hash >> (64 - N_GRADS_2D_EXPONENT + 1);
-        int gi = (int)hash & ((N_GRADS_2D - 1) << 1);
-        return GRADIENTS_2D[gi | 0] * dx + GRADIENTS_2D[gi | 1] * dy;
+        return (int)hash & ((N_GRADS_2D - 1) << 1);
     }
 
     private static float grad(long seed, long xrvp, long yrvp, long zrvp, float dx, float dy, float dz) {
+        int gi = gradIndex(seed, xrvp, yrvp, zrvp);
+        return GRADIENTS_3D[gi | 0] * dx + GRADIENTS_3D[gi | 1] * dy + GRADIENTS_3D[gi | 2] * dz;
+    }
+
+    private static int gradIndex(long seed, long xrvp, long yrvp, long zrvp) {
         long hash = (seed ^ xrvp) ^ (yrvp ^ zrvp);
         hash *= HASH_MULTIPLIER;
         hash ^= hash >> (64 - N_GRADS_3D_EXPONENT + 2);
-        int gi = (int)hash & ((N_GRADS_3D - 1) << 2);
-        return GRADIENTS_3D[gi | 0] * dx + GRADIENTS_3D[gi | 1] * dy + GRADIENTS_3D[gi | 2] * dz;
+        return (int)hash & ((N_GRADS_3D - 1) << 2);
     }
 
     private static float grad(long seed, long xsvp, long ysvp, long zsvp, long wsvp, float dx, float dy, float dz, float dw) {
@@ -879,4 +1150,5 @@ public class OpenSimplex2
             GRADIENTS_4D[i] = grad4[j];
         }
     }
+
 }
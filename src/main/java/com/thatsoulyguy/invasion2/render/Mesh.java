@@ -34,8 +34,34 @@ public class Mesh extends Component
     private final @NotNull List<Vertex> vertices = new CopyOnWriteArrayList<>();
     private final @NotNull List<Integer> indices = new CopyOnWriteArrayList<>();
 
+    /**
+     * Packed geometry set through {@link #setData(MeshData)}. When present it is uploaded instead of the vertex and index lists, and drawn with {@link Settings#PACKED_RENDERING_SHADER}.
+     */
+    private transient volatile @Nullable MeshData data = null;
+
     private transient int vao, vbo, cbo, nbo, uvbo, ibo;
 
+    /**
+     * Whether the buffers hold {@link MeshData} in the packed vertex format: a single vertex buffer instead of one per attribute.
+     */
+    private transient boolean packed;
+
+    /**
+     * The number of indices in the index buffer, which can lag behind {@link #indices} and {@link #data} until the next upload.
+     */
+    private transient int uploadedIndexCount;
+
+    /**
+     * The number of vertices in the vertex buffers after the last upload.
+     */
+    private transient int uploadedVertexCount;
+
+    /**
+     * The number of vertices and indices the packed buffers have room for. They grow by half again when outgrown,
+     * so geometry added by {@link #updateData} usually fits and only the new part is uploaded.
+     */
+    private transient int vertexCapacity, indexCapacity;
+
     private boolean isTransparent = false;
 
     private transient @EffectivelyNotNull CountDownLatch initializationLatch = new CountDownLatch(1);
@@ -58,33 +84,24 @@ public class Mesh extends Component
     @Override
     public void onLoad()
     {
-        if (vao == -1)
+        MainThreadExecutor.submit(this::upload);
+    }
+
+    /**
+     * Uploads the geometry right away, creating the buffers on the first call. Must be called on the main thread.
+     */
+    public void upload()
+    {
+        try
         {
-            MainThreadExecutor.submit(() ->
-            {
-                try
-                {
-                    createOrUpdateBuffers();
-                }
-                finally
-                {
-                    initializationLatch.countDown();
-                }
-            });
+            if (vao == -1)
+                createOrUpdateBuffers();
+            else
+                updateBufferData();
         }
-        else
+        finally
         {
-            MainThreadExecutor.submit(() ->
-            {
-                try
-                {
-                    updateBufferData();
-                }
-                finally
-                {
-                    initializationLatch.countDown();
-                }
-            });
+            initializationLatch.countDown();
         }
     }
 
@@ -105,35 +122,43 @@ public class Mesh extends Component
         if (texture == null)
             texture = Objects.requireNonNull(getGameObject().getComponent(TextureAtlas.class)).getOutputTexture();
 
-        Shader shader = Settings.DEFAULT_RENDERING_SHADER.getValue();
+        Shader shader = packed ? Settings.PACKED_RENDERING_SHADER.getValue() : Settings.DEFAULT_RENDERING_SHADER.getValue();
+
+        int attributeCount = packed ? 1 : 4;
 
         GL41.glBindVertexArray(vao);
 
-        GL41.glEnableVertexAttribArray(0);
-        GL41.glEnableVertexAttribArray(1);
-        GL41.glEnableVertexAttribArray(2);
-        GL41.glEnableVertexAttribArray(3);
+        for (int i = 0; i < attributeCount; i++)
+            GL41.glEnableVertexAttribArray(i);
 
         assert texture != null;
 
+        if (packed)
+            PackedVertexTable.bind(1);
+
         texture.bind(0);
         shader.bind();
 
         shader.setShaderUniform("diffuseTexture", 0);
+
+        if (packed)
+            shader.setShaderUniform("packedTables", 1);
         shader.setShaderUniform("projection", camera.getProjectionMatrix());
         shader.setShaderUniform("view", camera.getViewMatrix());
 
         shader.setShaderUniform("model", getGameObject().getTransform().getModelMatrix());
 
-        GL41.glDrawElements(GL41.GL_TRIANGLES, indices.size(), GL41.GL_UNSIGNED_INT, 0);
+        GL41.glDrawElements(GL41.GL_TRIANGLES, uploadedIndexCount, GL41.GL_UNSIGNED_INT, 0);
 
         shader.unbind();
         texture.unbind();
 
-        GL41.glDisableVertexAttribArray(0);
-        GL41.glDisableVertexAttribArray(1);
-        GL41.glDisableVertexAttribArray(2);
-        GL41.glDisableVertexAttribArray(3);
+        if (packed)
+            PackedVertexTable.unbind(1);
+
+        for (int i = 0; i < attributeCount; i++)
+            GL41.glDisableVertexAttribArray(i);
+
         GL41.glBindVertexArray(0);
 
         if (isTransparent)
@@ -192,7 +217,7 @@ public class Mesh extends Component
 
         shader.setShaderUniform("model", getGameObject().getTransform().getModelMatrix());
 
-        GL41.glDrawElements(GL41.GL_TRIANGLES, indices.size(), GL41.GL_UNSIGNED_INT, 0);
+        GL41.glDrawElements(GL41.GL_TRIANGLES, uploadedIndexCount, GL41.GL_UNSIGNED_INT, 0);
 
         shader.unbind();
         texture.unbind();
@@ -237,6 +262,8 @@ public class Mesh extends Component
     {
         synchronized (this.vertices)
         {
+            data = null;
+
             this.vertices.clear();
             this.vertices.addAll(vertices);
         }
@@ -249,6 +276,8 @@ public class Mesh extends Component
     {
         synchronized (this.indices)
         {
+            data = null;
+
             this.indices.clear();
             this.indices.addAll(indices);
         }
@@ -275,6 +304,8 @@ public class Mesh extends Component
     {
         synchronized (this.vertices)
         {
+            data = null;
+
             vertexModifier.accept(vertices);
             indexModifier.accept(indices);
 
@@ -283,16 +314,108 @@ public class Mesh extends Component
         }
     }
 
+    /**
+     * Replaces the geometry with primitive arrays, skipping the per-vertex objects of {@link #setVertices(List)}.
+     * The data is re-uploaded to the GPU if the buffers already exist. The mesh keeps a reference, so edits made
+     * to the data afterward must be followed by {@link #updateData(MeshData, int[], int[])}.
+     *
+     * @param data The new geometry
+     */
+    public void setData(@NotNull MeshData data)
+    {
+        setData(data, true);
+    }
+
+    /**
+     * Replaces the geometry with primitive arrays.
+     *
+     * @param data The new geometry
+     * @param upload Whether to queue a re-upload; pass false when {@link #upload()} is called right after on the main thread
+     */
+    public void setData(@NotNull MeshData data, boolean upload)
+    {
+        synchronized (this.vertices)
+        {
+            this.data = data;
+
+            if (upload && vao != -1)
+                MainThreadExecutor.submit(this::updateBufferData);
+        }
+    }
+
+    /**
+     * Re-uploads part of the geometry set through {@link #setData(MeshData)} after it was edited in place.
+     * Only the given ranges and anything added past the last upload are sent. The whole geometry is only re-uploaded
+     * when it outgrows the buffers, which then grow with room to spare.
+     *
+     * @param data The data the ranges refer to; the update is skipped if the mesh has been given other data since
+     * @param vertexRanges The changed vertices, as (first, count) pairs
+     * @param indexRanges The changed indices, as (first, count) pairs
+     */
+    public void updateData(@NotNull MeshData data, int @NotNull [] vertexRanges, int @NotNull [] indexRanges)
+    {
+        MainThreadExecutor.submit(() ->
+        {
+            if (this.data != data || vao == -1)
+                return;
+
+            if (!packed || data.getVertexCount() > vertexCapacity || data.getIndexCount() > indexCapacity)
+            {
+                updateBufferData();
+                return;
+            }
+
+            GL41.glBindVertexArray(vao);
+
+            GL41.glBindBuffer(GL41.GL_ARRAY_BUFFER, vbo);
+
+            for (int i = 0; i < vertexRanges.length; i += 2)
+                uploadVertices(data, vertexRanges[i], Math.min(vertexRanges[i] + vertexRanges[i + 1], uploadedVertexCount));
+
+            uploadVertices(data, uploadedVertexCount, data.getVertexCount());
+
+            GL41.glBindBuffer(GL41.GL_ELEMENT_ARRAY_BUFFER, ibo);
+
+            for (int i = 0; i < indexRanges.length; i += 2)
+                uploadIndices(data, indexRanges[i], Math.min(indexRanges[i] + indexRanges[i + 1], uploadedIndexCount));
+
+            uploadIndices(data, uploadedIndexCount, data.getIndexCount());
+
+            uploadedVertexCount = data.getVertexCount();
+            uploadedIndexCount = data.getIndexCount();
+
+            GL41.glBindVertexArray(0);
+
+            int error = GL41.glGetError();
+
+            if (error != GL41.GL_NO_ERROR)
+                System.err.println("OpenGL Error (updateData): " + error);
+        });
+    }
+
     private boolean checkInitialization()
     {
         if (initializationLatch.getCount() != 0)
             return false;
 
+        if (packed)
+            return vao != -1 && vbo != -1 && ibo != -1;
+
         return vao != -1 && vbo != -1 && cbo != -1 && uvbo != -1 && ibo != -1;
     }
 
     private void createOrUpdateBuffers()
     {
+        MeshData data = this.data;
+
+        if (data != null)
+        {
+            createPackedBuffers(data);
+            return;
+        }
+
+        packed = false;
+
         vao = GL41.glGenVertexArrays();
         GL41.glBindVertexArray(vao);
 
@@ -322,7 +445,10 @@ public class Mesh extends Component
 
         ibo = GL41.glGenBuffers();
         GL41.glBindBuffer(GL41.GL_ELEMENT_ARRAY_BUFFER, ibo);
-        GL41.glBufferData(GL41.GL_ELEMENT_ARRAY_BUFFER, toBuffer(indices), GL41.GL_DYNAMIC_DRAW);
+        IntBuffer indexBuffer = toBuffer(indices);
+        GL41.glBufferData(GL41.GL_ELEMENT_ARRAY_BUFFER, indexBuffer, GL41.GL_DYNAMIC_DRAW);
+        uploadedIndexCount = indexBuffer.remaining();
+        uploadedVertexCount = vertices.size();
 
         GL41.glBindVertexArray(0);
 
@@ -332,10 +458,84 @@ public class Mesh extends Component
             System.err.println("OpenGL Error (createOrUpdateBuffers):" + error);
     }
 
+    /**
+     * Creates a VAO with one interleaved buffer of packed vertices, read by the shader as a uvec2.
+     */
+    private void createPackedBuffers(@NotNull MeshData data)
+    {
+        packed = true;
+
+        vao = GL41.glGenVertexArrays();
+        GL41.glBindVertexArray(vao);
+
+        vbo = GL41.glGenBuffers();
+        GL41.glBindBuffer(GL41.GL_ARRAY_BUFFER, vbo);
+        GL41.glBufferData(GL41.GL_ARRAY_BUFFER, data.getVertexBuffer(0, data.getVertexCount()), GL41.GL_DYNAMIC_DRAW);
+        GL41.glVertexAttribIPointer(0, MeshData.VERTEX_SIZE, GL41.GL_UNSIGNED_INT, PackedVertex.BYTES, 0);
+        GL41.glEnableVertexAttribArray(0);
+
+        ibo = GL41.glGenBuffers();
+        GL41.glBindBuffer(GL41.GL_ELEMENT_ARRAY_BUFFER, ibo);
+        GL41.glBufferData(GL41.GL_ELEMENT_ARRAY_BUFFER, data.getIndexBuffer(0, data.getIndexCount()), GL41.GL_DYNAMIC_DRAW);
+        uploadedIndexCount = data.getIndexCount();
+        uploadedVertexCount = data.getVertexCount();
+        vertexCapacity = uploadedVertexCount;
+        indexCapacity = uploadedIndexCount;
+
+        GL41.glBindVertexArray(0);
+
+        int error = GL41.glGetError();
+
+        if (error != GL41.GL_NO_ERROR)
+            System.err.println("OpenGL Error (createPackedBuffers):" + error);
+    }
+
     private void updateBufferData()
     {
+        MeshData data = this.data;
+
+        if ((data != null) != packed)
+        {
+            deleteBuffers();
+            createOrUpdateBuffers();
+            return;
+        }
+
         GL41.glBindVertexArray(vao);
 
+        if (data != null)
+        {
+            GL41.glBindBuffer(GL41.GL_ARRAY_BUFFER, vbo);
+
+            if (data.getVertexCount() > vertexCapacity)
+            {
+                vertexCapacity = grow(vertexCapacity, data.getVertexCount());
+                GL41.glBufferData(GL41.GL_ARRAY_BUFFER, (long) vertexCapacity * PackedVertex.BYTES, GL41.GL_DYNAMIC_DRAW);
+            }
+
+            uploadVertices(data, 0, data.getVertexCount());
+
+            GL41.glBindBuffer(GL41.GL_ELEMENT_ARRAY_BUFFER, ibo);
+
+            if (data.getIndexCount() > indexCapacity)
+            {
+                indexCapacity = grow(indexCapacity, data.getIndexCount());
+                GL41.glBufferData(GL41.GL_ELEMENT_ARRAY_BUFFER, (long) indexCapacity * Integer.BYTES, GL41.GL_DYNAMIC_DRAW);
+            }
+
+            uploadIndices(data, 0, data.getIndexCount());
+            uploadedIndexCount = data.getIndexCount();
+            uploadedVertexCount = data.getVertexCount();
+
+            GL41.glBindVertexArray(0);
+
+            int error = GL41.glGetError();
+            if (error != GL41.GL_NO_ERROR)
+                System.err.println("OpenGL Error (updateBufferData): " + error);
+
+            return;
+        }
+
         FloatBuffer positionBuffer = toBuffer(vertices, Vertex::getPosition);
         GL41.glBindBuffer(GL41.GL_ARRAY_BUFFER, vbo);
         resizeOrSubData(GL41.GL_ARRAY_BUFFER, positionBuffer);
@@ -356,6 +556,8 @@ public class Mesh extends Component
         IntBuffer indexBuffer = toBuffer(indices);
         GL41.glBindBuffer(GL41.GL_ELEMENT_ARRAY_BUFFER, ibo);
         resizeOrSubData(GL41.GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
+        uploadedIndexCount = indexBuffer.remaining();
+        uploadedVertexCount = vertices.size();
 
         GL41.glBindVertexArray(0);
 
@@ -364,6 +566,49 @@ public class Mesh extends Component
             System.err.println("OpenGL Error (updateBufferData): " + error);
     }
 
+    private void deleteBuffers()
+    {
+        GL41.glDeleteVertexArrays(vao);
+        GL41.glDeleteBuffers(vbo);
+        GL41.glDeleteBuffers(cbo);
+        GL41.glDeleteBuffers(nbo);
+        GL41.glDeleteBuffers(uvbo);
+        GL41.glDeleteBuffers(ibo);
+
+        vao = -1;
+        vbo = -1;
+        cbo = -1;
+        nbo = -1;
+        uvbo = -1;
+        ibo = -1;
+
+        vertexCapacity = 0;
+        indexCapacity = 0;
+    }
+
+    /**
+     * Uploads vertices [start, end) of packed data into the bound vertex buffer, if there are any.
+     */
+    private static void uploadVertices(@NotNull MeshData data, int start, int end)
+    {
+        if (end > start)
+            GL41.glBufferSubData(GL41.GL_ARRAY_BUFFER, (long) start * PackedVertex.BYTES, data.getVertexBuffer(start, end - start));
+    }
+
+    /**
+     * Uploads indices [start, end) of packed data into the bound index buffer, if there are any.
+     */
+    private static void uploadIndices(@NotNull MeshData data, int start, int end)
+    {
+        if (end > start)
+            GL41.glBufferSubData(GL41.GL_ELEMENT_ARRAY_BUFFER, (long) start * Integer.BYTES, data.getIndexBuffer(start, end - start));
+    }
+
+    private static int grow(int capacity, int required)
+    {
+        return Math.max(required, capacity + capacity / 2);
+    }
+
     private <T extends Buffer> void resizeOrSubData(int target, T data)
     {
         int newSize = data.capacity() * (data instanceof FloatBuffer ? Float.BYTES : Integer.BYTES);
@@ -425,15 +670,7 @@ public class Mesh extends Component
     @Override
     public void uninitialize()
     {
-        MainThreadExecutor.submit(() ->
-        {
-            GL41.glDeleteVertexArrays(vao);
-            GL41.glDeleteBuffers(vbo);
-            GL41.glDeleteBuffers(cbo);
-            GL41.glDeleteBuffers(nbo);
-            GL41.glDeleteBuffers(uvbo);
-            GL41.glDeleteBuffers(ibo);
-        });
+        MainThreadExecutor.submit(this::deleteBuffers);
     }
 
     public static @NotNull Mesh create(@NotNull List<Vertex> vertices, @NotNull List<Integer> indices)
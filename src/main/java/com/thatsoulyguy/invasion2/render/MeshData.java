@@ -0,0 +1,188 @@
+package com.thatsoulyguy.invasion2.render;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.lwjgl.BufferUtils;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Mesh geometry in the {@link PackedVertex} format, stored as flat primitive arrays.
+ * <p>
+ * Used by meshers that build a lot of geometry off the main thread: the arrays grow as needed and
+ * {@link #clear()} keeps them, so one instance can be reused as scratch space. Hand a {@link #copy()}
+ * to {@link Mesh#setData(MeshData)} rather than the scratch instance itself.
+ */
+@CustomConstructor("create")
+public class MeshData
+{
+    /**
+     * The number of ints each vertex takes up.
+     */
+    public static final int VERTEX_SIZE = PackedVertex.BYTES / Integer.BYTES;
+
+    private int[] vertices;
+    private int[] indices;
+
+    private int vertexCount = 0;
+    private int indexCount = 0;
+
+    private MeshData() { }
+
+    /**
+     * Adds a vertex and returns its index.
+     *
+     * @param vertex The vertex, from {@link PackedVertex#encode}
+     */
+    public int addVertex(long vertex)
+    {
+        if (vertexCount * VERTEX_SIZE == vertices.length)
+            vertices = Arrays.copyOf(vertices, vertices.length * 2);
+
+        setVertex(vertexCount, vertex);
+
+        return vertexCount++;
+    }
+
+    /**
+     * Overwrites an existing vertex.
+     *
+     * @param index The index of the vertex, less than {@link #getVertexCount()} when called from outside
+     * @param vertex The vertex, from {@link PackedVertex#encode}
+     */
+    public void setVertex(int index, long vertex)
+    {
+        vertices[index * VERTEX_SIZE] = PackedVertex.getFirstWord(vertex);
+        vertices[index * VERTEX_SIZE + 1] = PackedVertex.getSecondWord(vertex);
+    }
+
+    public long getVertex(int index)
+    {
+        return (vertices[index * VERTEX_SIZE] & 0xFFFFFFFFL) | (long) vertices[index * VERTEX_SIZE + 1] << 32;
+    }
+
+    public void addIndex(int index)
+    {
+        if (indexCount == indices.length)
+            indices = Arrays.copyOf(indices, Math.max(1, indices.length * 2));
+
+        indices[indexCount++] = index;
+    }
+
+    /**
+     * Overwrites an existing index.
+     *
+     * @param position The position in the index list, less than {@link #getIndexCount()}
+     * @param index The new vertex index
+     */
+    public void setIndex(int position, int index)
+    {
+        indices[position] = index;
+    }
+
+    public int getIndex(int position)
+    {
+        return indices[position];
+    }
+
+    /**
+     * Sets the number of vertices and indices, growing the arrays if needed.
+     * Entries added this way hold leftover values until they're written with {@link #setVertex} and {@link #setIndex(int, int)}.
+     */
+    public void resize(int vertexCount, int indexCount)
+    {
+        if (vertexCount * VERTEX_SIZE > vertices.length)
+            vertices = Arrays.copyOf(vertices, Math.max(vertexCount * VERTEX_SIZE, vertices.length * 2));
+
+        if (indexCount > indices.length)
+            indices = Arrays.copyOf(indices, Math.max(indexCount, indices.length * 2));
+
+        this.vertexCount = vertexCount;
+        this.indexCount = indexCount;
+    }
+
+    /**
+     * Removes all vertices and indices, keeping the allocated arrays.
+     */
+    public void clear()
+    {
+        vertexCount = 0;
+        indexCount = 0;
+    }
+
+    public boolean isEmpty()
+    {
+        return vertexCount == 0 || indexCount == 0;
+    }
+
+    public int getVertexCount()
+    {
+        return vertexCount;
+    }
+
+    public int getIndexCount()
+    {
+        return indexCount;
+    }
+
+    /**
+     * Gets the number of bytes the geometry takes up on the GPU, vertices and indices together.
+     */
+    public long getByteSize()
+    {
+        return (long) vertexCount * PackedVertex.BYTES + (long) indexCount * Integer.BYTES;
+    }
+
+    /**
+     * Copies the used part of this data into a new instance with exactly sized arrays.
+     */
+    public @NotNull MeshData copy()
+    {
+        MeshData result = new MeshData();
+
+        result.vertices = Arrays.copyOf(vertices, vertexCount * VERTEX_SIZE);
+        result.indices = Arrays.copyOf(indices, indexCount);
+
+        result.vertexCount = vertexCount;
+        result.indexCount = indexCount;
+
+        return result;
+    }
+
+    @NotNull IntBuffer getVertexBuffer(int firstVertex, int count)
+    {
+        return toBuffer(vertices, firstVertex * VERTEX_SIZE, count * VERTEX_SIZE);
+    }
+
+    @NotNull IntBuffer getIndexBuffer(int firstIndex, int count)
+    {
+        return toBuffer(indices, firstIndex, count);
+    }
+
+    private static @NotNull IntBuffer toBuffer(int[] data, int offset, int length)
+    {
+        IntBuffer buffer = BufferUtils.createIntBuffer(length);
+
+        buffer.put(data, offset, length).flip();
+
+        return buffer;
+    }
+
+    /**
+     * Creates empty mesh data.
+     *
+     * @param vertexCapacity The number of vertices to allocate room for up front
+     * @param indexCapacity The number of indices to allocate room for up front
+     * @return The new mesh data
+     */
+    public static @NotNull MeshData create(int vertexCapacity, int indexCapacity)
+    {
+        MeshData result = new MeshData();
+
+        result.vertices = new int[Math.max(1, vertexCapacity) * VERTEX_SIZE];
+        result.indices = new int[Math.max(1, indexCapacity)];
+
+        return result;
+    }
+}
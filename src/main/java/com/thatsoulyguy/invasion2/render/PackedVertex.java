@@ -0,0 +1,115 @@
+package com.thatsoulyguy.invasion2.render;
+
+import com.thatsoulyguy.invasion2.annotation.Static;
+
+/**
+ * Encodes and decodes the 8 byte vertex format used for chunk geometry, as two 32 bit words.
+ * <p>
+ * First word: x, y and z (5 bits each, 0 to 32) relative to the chunk, the face (3 bits, in the order +z, -z, +y, -y, +x, -x)
+ * and the u and v tile coordinates (6 bits each, -16 to 47). The tile coordinates count tiles, so the shader wraps them
+ * inside the tile and a greedy quad repeats the texture once per block.
+ * <p>
+ * Second word: the tile index into {@link PackedVertexTable} (16 bits), then a byte holding the tint index (6 bits) and
+ * the ambient occlusion level (2 bits). The remaining 8 bits are unused.
+ * <p>
+ * The decoding in {@code geometryPackedVertex.glsl} and {@code legacy/packedVertex.glsl} must match this class.
+ * <p>
+ * Annotates: {@code @Static}
+ */
+@Static
+public class PackedVertex
+{
+    public static final int BYTES = 8;
+
+    public static final int MAX_POSITION = 31;
+    public static final int MIN_TILE_COORDINATE = -16;
+    public static final int MAX_TILE_COORDINATE = 47;
+    public static final int MAX_TILES = 1 << 16;
+    public static final int MAX_TINTS = 1 << 6;
+
+    /**
+     * The brightness of each ambient occlusion level, from a corner boxed in by both sides (0) to an open corner (3).
+     */
+    public static final float[] AMBIENT_OCCLUSION_BRIGHTNESS = { 0.5f, 0.7f, 0.85f, 1.0f };
+
+    private static final int TILE_COORDINATE_BIAS = -MIN_TILE_COORDINATE;
+
+    private PackedVertex() { }
+
+    /**
+     * Packs a vertex. Values outside their range are masked rather than checked.
+     *
+     * @param x The x position relative to the chunk
+     * @param y The y position relative to the chunk
+     * @param z The z position relative to the chunk
+     * @param face The face, in the order +z, -z, +y, -y, +x, -x
+     * @param u The u coordinate in tiles
+     * @param v The v coordinate in tiles
+     * @param tile The tile index from {@link PackedVertexTable#getTileIndex}
+     * @param tint The tint index from {@link PackedVertexTable#getTintIndex}
+     * @param ambientOcclusion The ambient occlusion level, 0 to 3
+     * @return The packed vertex, first word in the low 32 bits
+     */
+    public static long encode(int x, int y, int z, int face, int u, int v, int tile, int tint, int ambientOcclusion)
+    {
+        int first = (x & 31) | (y & 31) << 5 | (z & 31) << 10 | (face & 7) << 15 | ((u + TILE_COORDINATE_BIAS) & 63) << 18 | ((v + TILE_COORDINATE_BIAS) & 63) << 24;
+        int second = (tile & 0xFFFF) | (tint & 63) << 16 | (ambientOcclusion & 3) << 22;
+
+        return (first & 0xFFFFFFFFL) | (long) second << 32;
+    }
+
+    public static int getFirstWord(long vertex)
+    {
+        return (int) vertex;
+    }
+
+    public static int getSecondWord(long vertex)
+    {
+        return (int) (vertex >>> 32);
+    }
+
+    public static int getX(long vertex)
+    {
+        return getFirstWord(vertex) & 31;
+    }
+
+    public static int getY(long vertex)
+    {
+        return getFirstWord(vertex) >>> 5 & 31;
+    }
+
+    public static int getZ(long vertex)
+    {
+        return getFirstWord(vertex) >>> 10 & 31;
+    }
+
+    public static int getFace(long vertex)
+    {
+        return getFirstWord(vertex) >>> 15 & 7;
+    }
+
+    public static int getU(long vertex)
+    {
+        return (getFirstWord(vertex) >>> 18 & 63) - TILE_COORDINATE_BIAS;
+    }
+
+    public static int getV(long vertex)
+    {
+        return (getFirstWord(vertex) >>> 24 & 63) - TILE_COORDINATE_BIAS;
+    }
+
+    public static int getTile(long vertex)
+    {
+        return getSecondWord(vertex) & 0xFFFF;
+    }
+
+    public static int getTint(long vertex)
+    {
+        return getSecondWord(vertex) >>> 16 & 63;
+    }
+
+    public static int getAmbientOcclusion(long vertex)
+    {
+        return getSecondWord(vertex) >>> 22 & 3;
+    }
+}
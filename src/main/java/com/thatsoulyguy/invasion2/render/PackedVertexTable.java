@@ -0,0 +1,169 @@
+package com.thatsoulyguy.invasion2.render;
+
+import com.thatsoulyguy.invasion2.annotation.Static;
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL41;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The lookup tables that {@link PackedVertex} indices refer to: tint colors and atlas tile bounds.
+ * <p>
+ * Entries are added from any thread as meshes are built and never removed. On the GPU both tables share one
+ * RGBA32F buffer texture: tints at texels [0, {@link PackedVertex#MAX_TINTS}), tiles after them.
+ * <p>
+ * Annotates: {@code @Static}
+ */
+@Static
+public class PackedVertexTable
+{
+    private static final @NotNull Object lock = new Object();
+
+    private static final @NotNull List<Vector3f> tints = new ArrayList<>();
+    private static final @NotNull Map<Vector3f, Integer> tintIndices = new HashMap<>();
+
+    private static final @NotNull List<Vector4f> tiles = new ArrayList<>();
+    private static final @NotNull Map<Vector4f, Integer> tileIndices = new HashMap<>();
+
+    private static int version = 0;
+    private static int uploadedVersion = -1;
+
+    private static int buffer = -1;
+    private static int texture = -1;
+
+    private PackedVertexTable() { }
+
+    /**
+     * Gets the index of a tint color, adding it if it's new. Falls back to index 0 once the table is full.
+     */
+    public static int getTintIndex(@NotNull Vector3f color)
+    {
+        synchronized (lock)
+        {
+            Integer index = tintIndices.get(color);
+
+            if (index != null)
+                return index;
+
+            if (tints.size() == PackedVertex.MAX_TINTS)
+            {
+                System.err.println("Packed vertex tint table is full, can't add: " + color + "!");
+                return 0;
+            }
+
+            tints.add(new Vector3f(color));
+            tintIndices.put(new Vector3f(color), tints.size() - 1);
+            version++;
+
+            return tints.size() - 1;
+        }
+    }
+
+    /**
+     * Gets the index of an atlas tile, adding it if it's new. Falls back to index 0 once the table is full.
+     *
+     * @param minU The left edge of the tile in atlas UVs
+     * @param minV The top edge of the tile in atlas UVs
+     * @param width The width of the tile in atlas UVs
+     * @param height The height of the tile in atlas UVs
+     */
+    public static int getTileIndex(float minU, float minV, float width, float height)
+    {
+        Vector4f bounds = new Vector4f(minU, minV, width, height);
+
+        synchronized (lock)
+        {
+            Integer index = tileIndices.get(bounds);
+
+            if (index != null)
+                return index;
+
+            if (tiles.size() == PackedVertex.MAX_TILES)
+            {
+                System.err.println("Packed vertex tile table is full, can't add: " + bounds + "!");
+                return 0;
+            }
+
+            tiles.add(bounds);
+            tileIndices.put(bounds, tiles.size() - 1);
+            version++;
+
+            return tiles.size() - 1;
+        }
+    }
+
+    /**
+     * Binds the tables to a texture unit, uploading them first if entries were added. Must be called on the main thread.
+     */
+    public static void bind(int unit)
+    {
+        synchronized (lock)
+        {
+            if (buffer == -1)
+            {
+                buffer = GL41.glGenBuffers();
+                texture = GL41.glGenTextures();
+            }
+
+            if (uploadedVersion != version)
+            {
+                FloatBuffer data = BufferUtils.createFloatBuffer((PackedVertex.MAX_TINTS + Math.max(1, tiles.size())) * 4);
+
+                for (int i = 0; i < PackedVertex.MAX_TINTS; i++)
+                {
+                    Vector3f tint = i < tints.size() ? tints.get(i) : new Vector3f(1.0f);
+
+                    data.put(tint.x).put(tint.y).put(tint.z).put(1.0f);
+                }
+
+                for (Vector4f tile : tiles)
+                    data.put(tile.x).put(tile.y).put(tile.z).put(tile.w);
+
+                data.position(0);
+
+                GL41.glBindBuffer(GL41.GL_TEXTURE_BUFFER, buffer);
+                GL41.glBufferData(GL41.GL_TEXTURE_BUFFER, data, GL41.GL_DYNAMIC_DRAW);
+                GL41.glBindBuffer(GL41.GL_TEXTURE_BUFFER, 0);
+
+                uploadedVersion = version;
+            }
+        }
+
+        GL41.glActiveTexture(GL41.GL_TEXTURE0 + unit);
+        GL41.glBindTexture(GL41.GL_TEXTURE_BUFFER, texture);
+        GL41.glTexBuffer(GL41.GL_TEXTURE_BUFFER, GL41.GL_RGBA32F, buffer);
+    }
+
+    public static void unbind(int unit)
+    {
+        GL41.glActiveTexture(GL41.GL_TEXTURE0 + unit);
+        GL41.glBindTexture(GL41.GL_TEXTURE_BUFFER, 0);
+        GL41.glActiveTexture(GL41.GL_TEXTURE0);
+    }
+
+    /**
+     * Deletes the GPU copy of the tables; it's recreated on the next {@link #bind(int)}.
+     */
+    public static void uninitialize()
+    {
+        synchronized (lock)
+        {
+            if (buffer == -1)
+                return;
+
+            GL41.glDeleteTextures(texture);
+            GL41.glDeleteBuffers(buffer);
+
+            buffer = -1;
+            texture = -1;
+            uploadedVersion = -1;
+        }
+    }
+}
@@ -11,6 +11,11 @@ import java.io.Serializable;
 @CustomConstructor("create")
 public class Vertex implements Serializable
 {
+    /**
+     * The size of a vertex once uploaded by {@link Mesh}: one float per component, across its four buffers.
+     */
+    public static final int BYTES = 11 * Float.BYTES;
+
     private @EffectivelyNotNull Vector3f position;
     private @EffectivelyNotNull Vector3f color;
     private @EffectivelyNotNull Vector3f normal;
@@ -1,5 +1,6 @@
 package com.thatsoulyguy.invasion2.render.advanced.ssao.renderpasses;
 
+import com.thatsoulyguy.invasion2.core.Settings;
 import com.thatsoulyguy.invasion2.core.Window;
 import com.thatsoulyguy.invasion2.render.Camera;
 import com.thatsoulyguy.invasion2.render.Shader;
@@ -33,7 +34,7 @@ public class SSAOBlurRenderPass implements RenderPass
     @Override
     public void render(@Nullable Camera camera)
     {
-        if (camera == null)
+        if (camera == null || !Settings.isScreenSpaceAmbientOcclusionEnabled())
             return;
 
         ssaoBlurBuffer.bind();
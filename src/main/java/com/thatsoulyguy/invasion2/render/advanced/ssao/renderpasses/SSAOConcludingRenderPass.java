@@ -1,5 +1,6 @@
 package com.thatsoulyguy.invasion2.render.advanced.ssao.renderpasses;
 
+import com.thatsoulyguy.invasion2.core.Settings;
 import com.thatsoulyguy.invasion2.core.Window;
 import com.thatsoulyguy.invasion2.render.Camera;
 import com.thatsoulyguy.invasion2.render.Shader;
@@ -60,6 +61,7 @@ public class SSAOConcludingRenderPass implements RenderPass
         GL41.glActiveTexture(GL41.GL_TEXTURE3);
         GL41.glBindTexture(GL41.GL_TEXTURE_2D, ssaoBlur);
         conclusionShader.setShaderUniform("ssao", 3);
+        conclusionShader.setShaderUniform("useSSAO", Settings.isScreenSpaceAmbientOcclusionEnabled() ? 1 : 0);
 
         Framebuffer.renderFullscreenQuadrilateral();
 
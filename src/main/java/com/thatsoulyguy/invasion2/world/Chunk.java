@@ -1,164 +1,206 @@
 package com.thatsoulyguy.invasion2.world;
 
 import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
-import com.thatsoulyguy.invasion2.block.Block;
+import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
 import com.thatsoulyguy.invasion2.block.BlockRegistry;
 import com.thatsoulyguy.invasion2.collider.colliders.VoxelMeshCollider;
+import com.thatsoulyguy.invasion2.core.Settings;
 import com.thatsoulyguy.invasion2.render.Mesh;
-import com.thatsoulyguy.invasion2.render.Vertex;
+import com.thatsoulyguy.invasion2.render.MeshData;
 import com.thatsoulyguy.invasion2.system.Component;
-import com.thatsoulyguy.invasion2.thread.MainThreadExecutor;
+import com.thatsoulyguy.invasion2.system.GameObject;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.joml.Vector3i;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 @CustomConstructor("create")
 public class Chunk extends Component
 {
     public static final byte SIZE = 16;
 
-    private transient List<Vertex> vertices = new ArrayList<>();
-    private transient List<Integer> indices = new ArrayList<>();
+    private PalettedBlockStorage blocks = PalettedBlockStorage.create(BlockRegistry.BLOCK_AIR.getId());
 
-    private Map<Integer, Short> blocks = new HashMap<>();
+    private @EffectivelyNotNull Vector3i position;
+
+    private transient @Nullable World world;
+
+    /**
+     * Whether the chunk is attached to a GameObject. Chunks generated by a world start out as data only and only get a GameObject, mesh and collider once they have visible faces.
+     */
+    private transient boolean hasGameObject = false;
+
+    /**
+     * Whether the mesh's GPU buffers have been requested. Chunks with no visible faces skip it until they first get some.
+     */
+    private transient boolean meshLoaded = false;
+
+    private transient @Nullable MeshData meshData;
+
+    /**
+     * Face slots of the current mesh, created on the first block edit so later edits can patch the mesh instead of rebuilding it.
+     * Once a chunk has them it is meshed without greedy merging, since merged quads can't be patched face by face.
+     */
+    private transient @Nullable ChunkFaceSlots faceSlots;
+
+    /**
+     * Counts mesh builds, so an upload that was overtaken by a newer build while queued can be dropped.
+     */
+    private transient int meshVersion = 0;
+
+    private transient int appliedMeshVersion = 0;
+
+    /**
+     * Whether a block has been set since the chunk was last saved, or generated if it never was.
+     */
+    private transient volatile boolean modified = false;
 
     private Chunk() { }
 
     @Override
-    public void onLoad()
+    public synchronized void onLoad()
+    {
+        rebuildMeshAndCollider();
+    }
+
+    @Override
+    public void setGameObject(@NotNull GameObject gameObject)
+    {
+        super.setGameObject(gameObject);
+
+        hasGameObject = true;
+    }
+
+    /**
+     * Takes a padded copy of this chunk's blocks, including the bordering layers of any loaded neighbors.
+     */
+    private @NotNull ChunkSnapshot createSnapshot()
     {
-        vertices = new ArrayList<>();
-        indices = new ArrayList<>();
+        if (world == null)
+            return ChunkSnapshot.create(this);
+
+        return ChunkSnapshot.create(this, offset -> world.getMeshingNeighbor(position, offset));
+    }
+
+    /**
+     * Sets the block at the given position to 'type' and updates the chunk mesh.
+     * If you "break" a block (set it to air), this will remove its faces.
+     * If you place a new block, it'll add its faces.
+     *
+     * @param blockPosition The (x, y, z) position in chunk space
+     * @param type The block ID to place
+     */
+    public void setBlock(@NotNull Vector3i blockPosition, short type) {
+        if (!isValidPosition(blockPosition)) return;
 
-        List<Vector3f> renderingVoxelPositions = new ArrayList<>();
+        synchronized (blocks)
+        {
+            blocks.set(toIndex(blockPosition.x, blockPosition.y, blockPosition.z), type);
+
+            modified = true;
+        }
+
+        List<Vector3i> changedBlocks = new ArrayList<>();
 
-        for (int x = 0; x < SIZE; x++)
+        for (int x = -1; x <= 1; x++)
         {
-            for (int y = 0; y < SIZE; y++)
+            for (int y = -1; y <= 1; y++)
             {
-                for (int z = 0; z < SIZE; z++)
-                {
-                    short blockId = getBlock(x, y, z);
-                    if (blockId == BlockRegistry.BLOCK_AIR.getId()) continue;
-
-                    TextureAtlas textureAtlas = getGameObject().getComponent(TextureAtlas.class);
-
-                    if (textureAtlas == null)
-                    {
-                        System.err.println("Texture atlas was not found on chunk object!");
-                        return;
-                    }
-
-                    Block block = Objects.requireNonNull(BlockRegistry.get(blockId));
-                    renderFaceIfNeeded(x, y, z, textureAtlas, block, renderingVoxelPositions);
-                }
+                for (int z = -1; z <= 1; z++)
+                    changedBlocks.add(new Vector3i(blockPosition).add(x, y, z));
             }
         }
 
-        Mesh mesh = getGameObject().getComponent(Mesh.class);
-        VoxelMeshCollider collider = getGameObject().getComponent(VoxelMeshCollider.class);
+        refreshBlocks(changedBlocks);
+    }
 
-        if (mesh == null)
+    /**
+     * Updates the mesh and collider for a few blocks whose faces or ambient occlusion may have changed.
+     * Only the faces of those blocks are rewritten and re-uploaded. The first edit rebuilds the whole chunk once to record its face slots,
+     * dropping greedy merging for this chunk if it was on.
+     *
+     * @param blockPositions The positions in chunk space; positions outside the chunk are ignored
+     */
+    public synchronized void refreshBlocks(@NotNull List<Vector3i> blockPositions)
+    {
+        if (!hasGameObject || meshData == null || faceSlots == null || appliedMeshVersion != meshVersion)
         {
-            System.err.println("Mesh component missing from GameObject: '" + getGameObject().getName() + "'!");
+            if (faceSlots == null)
+                faceSlots = ChunkFaceSlots.create();
+
+            rebuildMeshAndCollider();
             return;
         }
 
-        if (collider == null)
+        TextureAtlas textureAtlas = getGameObject().getComponent(TextureAtlas.class);
+        Mesh mesh = getGameObject().getComponent(Mesh.class);
+        VoxelMeshCollider collider = getGameObject().getComponent(VoxelMeshCollider.class);
+
+        if (textureAtlas == null || mesh == null || collider == null)
         {
-            System.err.println("VoxelMeshCollider component missing from GameObject: '" + getGameObject().getName() + "'!");
+            System.err.println("Texture atlas, Mesh or VoxelMeshCollider component(s) missing from GameObject: '" + getGameObject().getName() + "'!");
             return;
         }
 
-        mesh.setTransient(true);
-        collider.setTransient(true);
+        ChunkSnapshot snapshot = createSnapshot();
 
-        if (!vertices.isEmpty() && !indices.isEmpty())
-        {
-            MainThreadExecutor.submit(() ->
-            {
-                mesh.setVertices(vertices);
-                mesh.setIndices(indices);
-            });
+        List<Vector3f> colliderVoxels = collider.getVoxels();
 
-            collider.setVoxels(renderingVoxelPositions);
+        for (Vector3i blockPosition : blockPositions)
+        {
+            if (!isValidPosition(blockPosition))
+                continue;
 
-            mesh.onLoad();
-        }
-    }
+            boolean exposed = ChunkMesher.updateBlock(snapshot, textureAtlas, meshData, faceSlots, Settings.BAKED_AMBIENT_OCCLUSION.getValue(), blockPosition.x, blockPosition.y, blockPosition.z);
 
-    private void renderFaceIfNeeded(int x, int y, int z, TextureAtlas textureAtlas, Block block, List<Vector3f> renderingVoxelPositions)
-    {
-        Vector3f basePosition = new Vector3f(x + 0.5f, y + 0.5f, z + 0.5f);
+            Vector3f voxel = new Vector3f(blockPosition.x + 0.5f, blockPosition.y + 0.5f, blockPosition.z + 0.5f);
 
-        if (!renderingVoxelPositions.contains(basePosition))
-            renderingVoxelPositions.add(basePosition);
+            colliderVoxels.remove(voxel);
 
-        Vector3i[] directions =
-                {
-                new Vector3i(0, 0, 1),
-                new Vector3i(0, 0, -1),
-                new Vector3i(0, 1, 0),
-                new Vector3i(0, -1, 0),
-                new Vector3i(1, 0, 0),
-                new Vector3i(-1, 0, 0)
-        };
+            if (exposed)
+                colliderVoxels.add(voxel);
+        }
 
-        int[] textureRotations = {180, 180, 0, 0, -90, 90};
-        int[] colorIndices = {2, 3, 0, 1, 4, 5};
+        collider.setVoxels(colliderVoxels);
 
-        for (int i = 0; i < directions.length; i++)
+        if (!meshLoaded)
         {
-            Vector3i direction = directions[i];
-
-            int colorIndex = colorIndices[i];
-            int rotation = textureRotations[i];
-
-            Vector3i neighborPosition = new Vector3i(x + direction.x, y + direction.y, z + direction.z);
+            faceSlots.clearDirty();
 
-            if (shouldRenderFace(neighborPosition))
+            if (!meshData.isEmpty())
             {
-                addFace(
-                        new Vector3i(x, y, z),
-                        direction,
-                        block.getColors()[colorIndex],
-                        textureAtlas.getSubTextureCoordinates(block.getTextures()[colorIndex], rotation)
-                );
+                mesh.onLoad();
+                meshLoaded = true;
             }
+
+            return;
         }
-    }
 
-    private void addRenderingVoxelPosition(@NotNull List<Vector3f> voxelPositions, int x, int y, int z)
-    {
-        Vector3f position = new Vector3f(x + 0.5f, y + 0.5f, z + 0.5f);
+        if (faceSlots.isDirty())
+        {
+            int rangeCount = faceSlots.getDirtyRangeCount();
 
-        if (!voxelPositions.contains(position))
-            voxelPositions.add(position);
-    }
+            int[] vertexRanges = new int[rangeCount * 2];
+            int[] indexRanges = new int[rangeCount * 2];
 
-    /**
-     * Sets the block at the given position to 'type' and updates the chunk mesh.
-     * If you "break" a block (set it to air), this will remove its faces.
-     * If you place a new block, it'll add its faces.
-     *
-     * @param blockPosition The (x, y, z) position in chunk space
-     * @param type The block ID to place
-     */
-    public void setBlock(@NotNull Vector3i blockPosition, short type) {
-        if (!isValidPosition(blockPosition)) return;
+            for (int range = 0; range < rangeCount; range++)
+            {
+                int start = faceSlots.getDirtyRangeStart(range);
+                int count = faceSlots.getDirtyRangeEnd(range) - start;
 
-        int index = toIndex(blockPosition.x, blockPosition.y, blockPosition.z);
-        if (type == BlockRegistry.BLOCK_AIR.getId()) {
-            blocks.remove(index);
-        } else {
-            blocks.put(index, type);
-        }
+                vertexRanges[range * 2] = start * 4;
+                vertexRanges[range * 2 + 1] = count * 4;
+                indexRanges[range * 2] = start * 6;
+                indexRanges[range * 2 + 1] = count * 6;
+            }
 
-        rebuildMeshAndCollider();
+            mesh.updateData(meshData, vertexRanges, indexRanges);
+
+            faceSlots.clearDirty();
+        }
     }
 
     /**
@@ -176,18 +218,80 @@ public class Chunk extends Component
         return getBlock(blockPosition.x, blockPosition.y, blockPosition.z);
     }
 
-    private short getBlock(int x, int y, int z)
+    /**
+     * Gets the type of the block at the specified position, without bounds checks or allocation.
+     * Coordinates are wrapped into the chunk, so global block coordinates can be passed directly.
+     * Reads under the same lock as {@link #setBlock}, since a write can repack the storage in several steps.
+     *
+     * @param x The x position in chunk space
+     * @param y The y position in chunk space
+     * @param z The z position in chunk space
+     * @return The type of block retrieved
+     */
+    public short getBlock(int x, int y, int z)
+    {
+        synchronized (blocks)
+        {
+            return blocks.get(toIndex(x, y, z));
+        }
+    }
+
+    /**
+     * Gives the action exclusive read access to the block storage, so other threads can copy blocks while the chunk is being edited.
+     */
+    void readBlocks(@NotNull Consumer<PalettedBlockStorage> action)
+    {
+        synchronized (blocks)
+        {
+            action.accept(blocks);
+        }
+    }
+
+    public @NotNull Vector3i getPosition()
     {
-        int index = toIndex(x, y, z);
-        return blocks.getOrDefault(index, BlockRegistry.BLOCK_AIR.getId());
+        return new Vector3i(position);
     }
 
-    private boolean shouldRenderFace(@NotNull Vector3i position)
+    public boolean hasGameObject()
     {
-        if (!isValidPosition(position))
-            return true;
+        return hasGameObject;
+    }
+
+    public boolean isModified()
+    {
+        return modified;
+    }
+
+    /**
+     * Gets the block storage itself, for handing an unloaded chunk's blocks on without copying them.
+     */
+    @NotNull PalettedBlockStorage getBlockStorage()
+    {
+        return blocks;
+    }
+
+    /**
+     * Copies the blocks for saving and marks the chunk unmodified; an edit made after the copy marks it modified again.
+     */
+    @NotNull PalettedBlockStorage createSaveSnapshot()
+    {
+        synchronized (blocks)
+        {
+            modified = false;
 
-        return getBlock(position.x, position.y, position.z) == BlockRegistry.BLOCK_AIR.getId();
+            return blocks.copy();
+        }
+    }
+
+    /**
+     * Checks whether every block in the chunk is air, without meshing it.
+     */
+    private boolean isAllAir()
+    {
+        synchronized (blocks)
+        {
+            return blocks.isSingleValue() && blocks.getSingleValue() == BlockRegistry.BLOCK_AIR.getId();
+        }
     }
 
     private boolean isValidPosition(@NotNull Vector3i position)
@@ -197,40 +301,76 @@ public class Chunk extends Component
                 position.z >= 0 && position.z < SIZE;
     }
 
-    private static int toIndex(int x, int y, int z)
+    static int toIndex(int x, int y, int z)
     {
         return (x & 0xF) | ((y & 0xF) << 4) | ((z & 0xF) << 8);
     }
 
-    private void rebuildMeshAndCollider()
+    /**
+     * Regenerates the chunk's geometry and collision voxels from its blocks and uploads them.
+     * A data-only chunk asks its world for a GameObject the first time it has visible faces; until then nothing is uploaded.
+     */
+    public synchronized void rebuildMeshAndCollider()
     {
-        vertices.clear();
-        indices.clear();
+        ChunkMeshUpload upload = buildMesh();
 
-        List<Vector3f> renderingVoxelPositions = new ArrayList<>();
+        if (upload != null)
+            applyMesh(upload, false);
+    }
+
+    /**
+     * Builds the chunk's geometry and collision voxels without applying them, for the world's meshing stage.
+     *
+     * @return The mesh to apply with {@link #applyMesh(ChunkMeshUpload, boolean)}, or null if the chunk stays data only
+     */
+    synchronized @Nullable ChunkMeshUpload buildMesh()
+    {
+        meshVersion++;
+
+        if (!hasGameObject && isAllAir())
+        {
+            meshData = null;
+            return null;
+        }
+
+        TextureAtlas textureAtlas = hasGameObject ? getGameObject().getComponent(TextureAtlas.class) : TextureAtlasManager.get(World.TEXTURE_ATLAS);
 
-        TextureAtlas textureAtlas = getGameObject().getComponent(TextureAtlas.class);
         if (textureAtlas == null)
         {
             System.err.println("Texture atlas was not found on chunk object!");
-            return;
+            return null;
         }
 
-        for (int x = 0; x < SIZE; x++)
-        {
-            for (int y = 0; y < SIZE; y++)
-            {
-                for (int z = 0; z < SIZE; z++)
-                {
-                    short blockID = getBlock(x, y, z);
+        List<Vector3f> colliderVoxels = new ArrayList<>();
 
-                    if (blockID == BlockRegistry.BLOCK_AIR.getId())
-                        continue;
+        MeshData data = ChunkMesher.build(createSnapshot(), textureAtlas, Settings.GREEDY_MESHING.getValue() && faceSlots == null, Settings.BAKED_AMBIENT_OCCLUSION.getValue(), colliderVoxels, faceSlots);
 
-                    Block block = Objects.requireNonNull(BlockRegistry.get(blockID));
-                    renderFaceIfNeeded(x, y, z, textureAtlas, block, renderingVoxelPositions);
-                }
-            }
+        meshData = data;
+
+        if (!hasGameObject && (data.isEmpty() || world == null))
+            return null;
+
+        return new ChunkMeshUpload(this, data, colliderVoxels, meshVersion);
+    }
+
+    /**
+     * Hands a built mesh to the chunk's Mesh and collider, creating the GameObject first for a data-only chunk.
+     * Does nothing if a newer mesh has been built since, or if the chunk has been unloaded.
+     *
+     * @param upload The mesh from {@link #buildMesh()}
+     * @param uploadNow Whether to upload to the GPU right away, which must be done on the main thread; otherwise the upload is queued on {@link com.thatsoulyguy.invasion2.thread.MainThreadExecutor}
+     */
+    synchronized void applyMesh(@NotNull ChunkMeshUpload upload, boolean uploadNow)
+    {
+        if (upload.version() != meshVersion || (world != null && world.getChunk(position) != this))
+            return;
+
+        if (!hasGameObject)
+        {
+            if (world == null)
+                return;
+
+            world.createChunkObject(this);
         }
 
         Mesh mesh = getGameObject().getComponent(Mesh.class);
@@ -248,184 +388,25 @@ public class Chunk extends Component
             return;
         }
 
-        if (!vertices.isEmpty() && !indices.isEmpty())
-        {
-            mesh.setTransient(true);
-            collider.setTransient(true);
-
-            MainThreadExecutor.submit(() -> mesh.modify(
-                    vertList ->
-                    {
-                        vertList.clear();
-                        vertList.addAll(vertices);
-                    },
-                    idxList ->
-                    {
-                        idxList.clear();
-                        idxList.addAll(indices);
-                    }
-            ));
-
-            collider.setVoxels(renderingVoxelPositions);
-        }
-        else
-        {
-            MainThreadExecutor.submit(() -> mesh.modify
-            (
-                    List::clear,
-                    List::clear
-            ));
-
-            collider.setVoxels(Collections.emptyList());
-        }
-    }
-
-    private void addFace(@NotNull Vector3i position, @NotNull Vector3i normal, @NotNull Vector3f baseColor, @Nullable Vector2f[] uvs)
-    {
-        if (uvs == null)
-            return;
-
-        Vector3i[] faceVertices = getFaceVerticesForNormal(position, normal);
-
-        for (int i = 0; i < 4; i++)
-            vertices.add(Vertex.create(new Vector3f(faceVertices[i]), baseColor, new Vector3f(normal.x, normal.y, normal.z), uvs[i]));
-
-        int startIndex = this.vertices.size() - 4;
-
-        boolean isTop = (normal.x == 0 && normal.y == 1 && normal.z == 0);
-        boolean isBottom = (normal.x == 0 && normal.y == -1 && normal.z == 0);
-
-        if (isTop || isBottom)
-        {
-            indices.add(startIndex);
-            indices.add(startIndex + 1);
-            indices.add(startIndex + 2);
-            indices.add(startIndex + 2);
-            indices.add(startIndex + 3);
-            indices.add(startIndex);
-        }
-        else
-        {
-            indices.add(startIndex);
-            indices.add(startIndex + 2);
-            indices.add(startIndex + 1);
-            indices.add(startIndex + 2);
-            indices.add(startIndex);
-            indices.add(startIndex + 3);
-        }
-    }
+        mesh.setTransient(true);
+        collider.setTransient(true);
 
-    private static float[] getAmbientOcclusionSubstituteLighting(@NotNull Vector3i normal)
-    {
-        float[] ao;
+        MeshData data = upload.data();
 
-        if (normal.y > 0)
-            ao = new float[]
-            {
-                1.0f,
-                1.0f,
-                1.0f,
-                1.0f
-            };
-        else if (normal.z < 0)
-            ao = new float[]
-            {
-                0.65f,
-                0.65f,
-                0.65f,
-                0.65f
-            };
-        else if (normal.x < 0)
-            ao = new float[]
-            {
-                0.85f,
-                0.85f,
-                0.85f,
-                0.85f
-            };
-        else
-            ao = new float[]
-            {
-                1.0f,
-                1.0f,
-                1.0f,
-                1.0f
-            };
+        mesh.setData(data, !uploadNow);
+        collider.setVoxels(upload.colliderVoxels());
 
-        return ao;
-    }
+        appliedMeshVersion = upload.version();
 
-    private @NotNull Vector3i[] getFaceVerticesForNormal(@NotNull Vector3i position, @NotNull Vector3i normal)
-    {
-        int x = position.x;
-        int y = position.y;
-        int z = position.z;
+        if (data.isEmpty() && !meshLoaded)
+            return;
 
-        if (normal.x == 0 && normal.y == 0 && normal.z == 1)
-        {
-            return new Vector3i[]{
-                    new Vector3i(x, y, z + 1),
-                    new Vector3i(x, y + 1, z + 1),
-                    new Vector3i(x + 1, y + 1, z + 1),
-                    new Vector3i(x + 1, y, z + 1)
-            };
-        }
-        else if (normal.x == 0 && normal.y == 0 && normal.z == -1)
-        {
-            return new Vector3i[]{
-                    new Vector3i(x + 1, y, z),
-                    new Vector3i(x + 1, y + 1, z),
-                    new Vector3i(x, y + 1, z),
-                    new Vector3i(x, y, z)
-            };
-        }
-        else if (normal.x == 0 && normal.y == 1 && normal.z == 0)
-        {
-            return new Vector3i[]{
-                    new Vector3i(x, y + 1, z),
-                    new Vector3i(x, y + 1, z + 1),
-                    new Vector3i(x + 1, y + 1, z + 1),
-                    new Vector3i(x + 1, y + 1, z)
-            };
-        }
-        else if (normal.x == 0 && normal.y == -1 && normal.z == 0)
-        {
-            return new Vector3i[]
-                    {
-                            new Vector3i(x + 1, y, z),
-                            new Vector3i(x + 1, y, z + 1),
-                            new Vector3i(x, y, z + 1),
-                            new Vector3i(x, y, z)
-                    };
-        }
-        else if (normal.x == 1 && normal.y == 0 && normal.z == 0)
-        {
-            return new Vector3i[]
-                    {
-                            new Vector3i(x + 1, y, z),
-                            new Vector3i(x + 1, y, z + 1),
-                            new Vector3i(x + 1, y + 1, z + 1),
-                            new Vector3i(x + 1, y + 1, z)
-                    };
-        }
-        else if (normal.x == -1 && normal.y == 0 && normal.z == 0)
-        {
-            return new Vector3i[]
-                    {
-                            new Vector3i(x, y + 1, z),
-                            new Vector3i(x, y + 1, z + 1),
-                            new Vector3i(x, y, z + 1),
-                            new Vector3i(x, y, z)
-                    };
-        }
+        if (uploadNow)
+            mesh.upload();
+        else if (!meshLoaded)
+            mesh.onLoad();
 
-        return new Vector3i[]
-                {
-                        new Vector3i(x, y, z),
-                        new Vector3i(x, y, z),
-                        new Vector3i(x, y, z),
-                        new Vector3i(x, y, z)
-                };
+        meshLoaded = true;
     }
 
     public static @NotNull Chunk create()
@@ -434,30 +415,58 @@ public class Chunk extends Component
     }
 
     public static @NotNull Chunk create(short[][][] blocks)
+    {
+        return create(null, new Vector3i(0, 0, 0), blocks);
+    }
+
+    /**
+     * Creates a chunk that belongs to a world, so its faces can be culled against the neighboring chunks.
+     *
+     * @param world The world the chunk is in, or null for a standalone chunk
+     * @param position The position of the chunk in chunk coordinates
+     * @param blocks The blocks of the chunk
+     * @return The new chunk
+     */
+    public static @NotNull Chunk create(@Nullable World world, @NotNull Vector3i position, short[][][] blocks)
     {
         Chunk result = new Chunk();
 
-        Map<Integer, Short> blockMap = new HashMap<>();
+        result.world = world;
+        result.position = new Vector3i(position);
+
+        short[] values = new short[PalettedBlockStorage.VOLUME];
 
         for (int x = 0; x < blocks.length; x++)
         {
             for (int y = 0; y < blocks[x].length; y++)
             {
                 for (int z = 0; z < blocks[x][y].length; z++)
-                {
-                    short blockType = blocks[x][y][z];
-
-                    if (blockType != BlockRegistry.BLOCK_AIR.getId())
-                    {
-                        int index = toIndex(x, y, z);
-
-                        blockMap.put(index, blockType);
-                    }
-                }
+                    values[toIndex(x, y, z)] = blocks[x][y][z];
             }
         }
 
-        result.blocks = blockMap;
+        result.blocks = PalettedBlockStorage.create(values);
+
+        return result;
+    }
+
+    /**
+     * Creates a chunk around existing block storage, such as a cached chunk being loaded again.
+     *
+     * @param world The world the chunk is in
+     * @param position The position of the chunk in chunk coordinates
+     * @param blocks The block storage, which the chunk takes ownership of
+     * @param modified Whether the blocks have edits that aren't saved yet
+     * @return The new chunk
+     */
+    static @NotNull Chunk create(@NotNull World world, @NotNull Vector3i position, @NotNull PalettedBlockStorage blocks, boolean modified)
+    {
+        Chunk result = new Chunk();
+
+        result.world = world;
+        result.position = new Vector3i(position);
+        result.blocks = blocks;
+        result.modified = modified;
 
         return result;
     }
@@ -0,0 +1,227 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Keeps the blocks of unloaded columns in memory, so walking back to them doesn't regenerate them or lose edits.
+ * <p>
+ * A column goes in uncompressed when it's unloaded and is compressed in the background by {@link #compress(Vector2i)}.
+ * Once the cache is over its byte budget the least recently used columns are evicted: unmodified ones are dropped, since they can
+ * be loaded or generated again, and modified ones are handed to the {@link ChunkSaver}.
+ */
+@CustomConstructor("create")
+public class ChunkCache
+{
+    private final @NotNull LinkedHashMap<Vector2i, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private @EffectivelyNotNull ChunkSaver chunkSaver;
+
+    private long byteBudget;
+    private long usedBytes = 0;
+
+    private ChunkCache() { }
+
+    /**
+     * Adds an unloaded column. Call {@link #compress(Vector2i)} afterwards, preferably off the update thread.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @param sections The block storage of each section, bottom up; must no longer be modified
+     * @param modified Whether the column has edits that haven't been saved yet
+     */
+    public void put(@NotNull Vector2i position, @NotNull PalettedBlockStorage[] sections, boolean modified)
+    {
+        Entry entry = new Entry(sections, modified);
+
+        synchronized (this)
+        {
+            Entry previous = entries.put(new Vector2i(position), entry);
+
+            if (previous != null)
+                usedBytes -= previous.size;
+
+            usedBytes += entry.size;
+        }
+    }
+
+    /**
+     * Compresses a column added with {@link #put}, then evicts columns until the cache is within its budget.
+     */
+    public void compress(@NotNull Vector2i position)
+    {
+        Entry entry;
+
+        synchronized (this)
+        {
+            entry = entries.get(position);
+        }
+
+        if (entry != null)
+        {
+            PalettedBlockStorage[] sections = entry.sections;
+
+            if (sections != null)
+            {
+                byte[] data = ChunkCompression.compress(sections);
+
+                synchronized (this)
+                {
+                    if (entries.get(position) == entry && entry.sections != null)
+                    {
+                        usedBytes -= entry.size;
+
+                        entry.sections = null;
+                        entry.data = data;
+                        entry.size = data.length + Entry.OVERHEAD;
+
+                        usedBytes += entry.size;
+                    }
+                }
+            }
+        }
+
+        evict();
+    }
+
+    /**
+     * Removes a column from the cache.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @return The column's blocks, or null if it isn't cached
+     */
+    public @Nullable CachedColumn take(@NotNull Vector2i position)
+    {
+        Entry entry;
+
+        synchronized (this)
+        {
+            entry = entries.remove(position);
+
+            if (entry == null)
+                return null;
+
+            usedBytes -= entry.size;
+        }
+
+        try
+        {
+            PalettedBlockStorage[] sections = entry.sections;
+
+            return new CachedColumn(sections != null ? sections : ChunkCompression.decompress(Objects.requireNonNull(entry.data)), entry.modified);
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Failed to read cached column " + position + ": " + exception.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Hands every modified column to the chunk saver. They stay cached, as unmodified.
+     */
+    public synchronized void saveModified()
+    {
+        for (Map.Entry<Vector2i, Entry> entry : entries.entrySet())
+        {
+            if (entry.getValue().modified)
+                save(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public synchronized long getUsedBytes()
+    {
+        return usedBytes;
+    }
+
+    private synchronized void evict()
+    {
+        Iterator<Map.Entry<Vector2i, Entry>> iterator = entries.entrySet().iterator();
+
+        while (usedBytes > byteBudget && iterator.hasNext())
+        {
+            Map.Entry<Vector2i, Entry> eldest = iterator.next();
+
+            iterator.remove();
+            usedBytes -= eldest.getValue().size;
+
+            if (eldest.getValue().modified)
+                save(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * Hands a column to the chunk saver and marks it unmodified. Uncompressed blocks are copied, since a taken column's blocks are modified again.
+     */
+    private void save(@NotNull Vector2i position, @NotNull Entry entry)
+    {
+        PalettedBlockStorage[] sections = entry.sections;
+
+        if (sections != null)
+        {
+            PalettedBlockStorage[] copy = new PalettedBlockStorage[sections.length];
+
+            for (int i = 0; i < sections.length; i++)
+                copy[i] = sections[i].copy();
+
+            chunkSaver.save(position, copy);
+        }
+        else
+            chunkSaver.save(position, Objects.requireNonNull(entry.data));
+
+        entry.modified = false;
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param byteBudget The most bytes the cached columns may take up before the least recently used ones are evicted
+     * @param chunkSaver Where modified columns go when they are evicted
+     * @return The new cache
+     */
+    public static @NotNull ChunkCache create(long byteBudget, @NotNull ChunkSaver chunkSaver)
+    {
+        ChunkCache result = new ChunkCache();
+
+        result.byteBudget = byteBudget;
+        result.chunkSaver = chunkSaver;
+
+        return result;
+    }
+
+    /**
+     * The blocks of a column taken from the cache.
+     *
+     * @param sections The block storage of each section, bottom up
+     * @param modified Whether the column has edits that haven't been saved yet
+     */
+    public record CachedColumn(@NotNull PalettedBlockStorage[] sections, boolean modified) { }
+
+    private static class Entry
+    {
+        private static final long OVERHEAD = 64;
+
+        private @Nullable PalettedBlockStorage[] sections;
+        private byte @Nullable [] data;
+
+        private boolean modified;
+
+        private long size;
+
+        private Entry(@NotNull PalettedBlockStorage[] sections, boolean modified)
+        {
+            this.sections = sections;
+            this.modified = modified;
+
+            size = OVERHEAD;
+
+            for (PalettedBlockStorage section : sections)
+                size += section.getByteSize();
+        }
+    }
+}
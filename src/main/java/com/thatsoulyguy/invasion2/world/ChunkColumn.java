@@ -0,0 +1,169 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * A vertical stack of {@link World#VERTICAL_CHUNKS} chunk sections, loaded and unloaded as one unit.
+ * <p>
+ * Holds the per-column state that every section shares, such as the terrain heightmap, so terrain generators
+ * compute 2D data once per column instead of once per section.
+ */
+@CustomConstructor("create")
+public class ChunkColumn
+{
+    private final @NotNull Chunk[] sections = new Chunk[World.VERTICAL_CHUNKS];
+
+    private int x;
+    private int z;
+
+    private volatile @NotNull ChunkStatus status = ChunkStatus.EMPTY;
+
+    /**
+     * The blocks of every section while the column goes through the {@link ChunkGenerationPipeline}, indexed [section][x][y][z].
+     */
+    private short @Nullable [][][][] generatingBlocks;
+
+    private int @Nullable [] heightmap;
+
+    private int highestSurface = Integer.MIN_VALUE;
+
+    private ChunkColumn() { }
+
+    /**
+     * Gets a section of the column.
+     *
+     * @param y The section's y position in chunk coordinates
+     * @return The section, or null if y is outside the world or the column isn't {@link ChunkStatus#FULL} yet
+     */
+    public @Nullable Chunk getSection(int y)
+    {
+        if (y < 0 || y >= sections.length)
+            return null;
+
+        return sections[y];
+    }
+
+    void setSection(int y, @NotNull Chunk chunk)
+    {
+        sections[y] = chunk;
+    }
+
+    /**
+     * Checks whether any section has been modified since it was generated.
+     */
+    public boolean isModified()
+    {
+        for (Chunk section : sections)
+        {
+            if (section != null && section.isModified())
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the terrain height of every block column in this chunk column, computing it on the first call.
+     * Indexed by x + z * {@link Chunk#SIZE}, with x and z in chunk space.
+     *
+     * @param heightmapFunction Computes the heightmap of a column from its position; only called on the first call
+     * @return The heightmap, shared with every caller, so it must not be modified
+     */
+    public synchronized int @NotNull [] getHeightmap(@NotNull Function<Vector2i, int[]> heightmapFunction)
+    {
+        if (heightmap == null)
+            setHeightmap(heightmapFunction.apply(getPosition()));
+
+        return heightmap;
+    }
+
+    /**
+     * Gets the terrain height of every block column in this chunk column, taking it from a heightmap cache on the first call.
+     *
+     * @param heightmapCache The cache shared with the columns around this one
+     * @param heightmapFunction Computes the heightmap of a column from its position if the cache doesn't have it
+     * @return The heightmap, shared with every caller, so it must not be modified
+     */
+    public synchronized int @NotNull [] getHeightmap(@NotNull HeightmapCache heightmapCache, @NotNull Function<Vector2i, int[]> heightmapFunction)
+    {
+        if (heightmap == null)
+            setHeightmap(heightmapCache.get(getPosition(), heightmapFunction));
+
+        return heightmap;
+    }
+
+    private void setHeightmap(int @NotNull [] heightmap)
+    {
+        this.heightmap = heightmap;
+        highestSurface = Arrays.stream(heightmap).max().orElse(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Takes over the heightmap of another column at the same position, such as the one it was generated from.
+     */
+    synchronized void copyHeightmap(@NotNull ChunkColumn other)
+    {
+        synchronized (other)
+        {
+            heightmap = other.heightmap;
+            highestSurface = other.highestSurface;
+        }
+    }
+
+    /**
+     * Gets the blocks of every section while the column is being generated, creating them on the first call.
+     * Indexed [section][x][y][z], with x, y and z in chunk space.
+     */
+    synchronized short @NotNull [][][][] getGeneratingBlocks()
+    {
+        if (generatingBlocks == null)
+            generatingBlocks = new short[World.VERTICAL_CHUNKS][Chunk.SIZE][Chunk.SIZE][Chunk.SIZE];
+
+        return generatingBlocks;
+    }
+
+    /**
+     * Gets the highest terrain height in the column, or {@link Integer#MIN_VALUE} if the heightmap hasn't been computed.
+     */
+    public synchronized int getHighestSurface()
+    {
+        return highestSurface;
+    }
+
+    public @NotNull ChunkStatus getStatus()
+    {
+        return status;
+    }
+
+    void setStatus(@NotNull ChunkStatus status)
+    {
+        this.status = status;
+    }
+
+    public @NotNull Vector2i getPosition()
+    {
+        return new Vector2i(x, z);
+    }
+
+    /**
+     * Creates an empty column.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @return The new column
+     */
+    public static @NotNull ChunkColumn create(@NotNull Vector2i position)
+    {
+        ChunkColumn result = new ChunkColumn();
+
+        result.x = position.x;
+        result.z = position.y;
+
+        return result;
+    }
+}
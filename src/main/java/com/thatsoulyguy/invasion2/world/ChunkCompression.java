@@ -0,0 +1,78 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.Static;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Turns the block storage of a column's sections into deflated bytes and back, for keeping chunks outside the loaded world.
+ * <p>
+ * Annotates: {@code @Static}
+ */
+@Static
+public class ChunkCompression
+{
+    private static final int FORMAT_VERSION = 1;
+
+    private ChunkCompression() { }
+
+    /**
+     * Compresses the sections of a column.
+     *
+     * @param sections The block storage of each section, bottom up
+     * @return The compressed bytes
+     */
+    public static byte @NotNull [] compress(@NotNull PalettedBlockStorage[] sections)
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try (DataOutputStream output = new DataOutputStream(new DeflaterOutputStream(bytes, deflater)))
+        {
+            output.writeByte(FORMAT_VERSION);
+            output.writeByte(sections.length);
+
+            for (PalettedBlockStorage section : sections)
+                section.write(output);
+        }
+        catch (IOException exception)
+        {
+            throw new UncheckedIOException(exception);
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decompresses the sections of a column written by {@link #compress(PalettedBlockStorage[])}.
+     *
+     * @param data The compressed bytes
+     * @return The block storage of each section, bottom up
+     * @throws IOException If the data is malformed
+     */
+    public static @NotNull PalettedBlockStorage[] decompress(byte @NotNull [] data) throws IOException
+    {
+        try (DataInputStream input = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data))))
+        {
+            int version = input.readUnsignedByte();
+
+            if (version != FORMAT_VERSION)
+                throw new IOException("Unknown compressed chunk format version: " + version + "!");
+
+            PalettedBlockStorage[] result = new PalettedBlockStorage[input.readUnsignedByte()];
+
+            for (int i = 0; i < result.length; i++)
+                result[i] = PalettedBlockStorage.read(input);
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Tracks where each block face of a chunk lives in its mesh, so single block edits can patch the mesh in place.
+ * <p>
+ * A slot is one quad: vertices [slot * 4, slot * 4 + 4) and indices [slot * 6, slot * 6 + 6).
+ * Removed faces leave their slot behind as a degenerate quad on a free list, to be reused by the next added face.
+ * Only meshes built without greedy merging have a one to one mapping between faces and quads.
+ * <p>
+ * Changed slots are tracked as a short sorted list of disjoint ranges, so an edit that reuses an early slot and appends one at the
+ * end re-uploads those two quads rather than everything in between.
+ */
+@CustomConstructor("create")
+public class ChunkFaceSlots
+{
+    public static final int FACES = 6;
+
+    /**
+     * The most dirty ranges kept apart. Past this, the two ranges with the smallest gap between them are merged.
+     */
+    public static final int MAX_DIRTY_RANGES = 8;
+
+    private final int[] slots = new int[PalettedBlockStorage.VOLUME * FACES];
+
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount = 0;
+
+    /**
+     * Dirty slot ranges as (start, end) pairs, sorted, with at least one clean slot between neighbors.
+     */
+    private final int[] dirtyRanges = new int[MAX_DIRTY_RANGES * 2];
+    private int dirtyRangeCount = 0;
+
+    private ChunkFaceSlots() { }
+
+    /**
+     * Gets the slot of a face, or -1 if the face has no quad.
+     *
+     * @param blockIndex The index of the block, as in {@link PalettedBlockStorage#get(int)}
+     * @param face The face, in the order +z, -z, +y, -y, +x, -x
+     */
+    public int get(int blockIndex, int face)
+    {
+        return slots[blockIndex * FACES + face];
+    }
+
+    public void set(int blockIndex, int face, int slot)
+    {
+        slots[blockIndex * FACES + face] = slot;
+    }
+
+    /**
+     * Takes a slot from the free list, or returns -1 if it is empty.
+     */
+    public int takeFreeSlot()
+    {
+        if (freeSlotCount == 0)
+            return -1;
+
+        return freeSlots[--freeSlotCount];
+    }
+
+    public void freeSlot(int slot)
+    {
+        if (freeSlotCount == freeSlots.length)
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    /**
+     * Records that a slot's quad changed and needs to be re-uploaded.
+     */
+    public void markDirty(int slot)
+    {
+        int range = 0;
+
+        while (range < dirtyRangeCount && dirtyRanges[range * 2 + 1] < slot)
+            range++;
+
+        if (range < dirtyRangeCount && dirtyRanges[range * 2] <= slot + 1)
+        {
+            dirtyRanges[range * 2] = Math.min(dirtyRanges[range * 2], slot);
+            dirtyRanges[range * 2 + 1] = Math.max(dirtyRanges[range * 2 + 1], slot + 1);
+
+            if (range + 1 < dirtyRangeCount && dirtyRanges[range * 2 + 2] <= dirtyRanges[range * 2 + 1])
+            {
+                dirtyRanges[range * 2 + 1] = Math.max(dirtyRanges[range * 2 + 1], dirtyRanges[range * 2 + 3]);
+                removeDirtyRange(range + 1);
+            }
+
+            return;
+        }
+
+        if (dirtyRangeCount == MAX_DIRTY_RANGES)
+        {
+            mergeClosestDirtyRanges();
+            markDirty(slot);
+            return;
+        }
+
+        System.arraycopy(dirtyRanges, range * 2, dirtyRanges, range * 2 + 2, (dirtyRangeCount - range) * 2);
+
+        dirtyRanges[range * 2] = slot;
+        dirtyRanges[range * 2 + 1] = slot + 1;
+        dirtyRangeCount++;
+    }
+
+    public boolean isDirty()
+    {
+        return dirtyRangeCount > 0;
+    }
+
+    public int getDirtyRangeCount()
+    {
+        return dirtyRangeCount;
+    }
+
+    /**
+     * Gets the first slot of a dirty range.
+     *
+     * @param range The range, in [0, {@link #getDirtyRangeCount()}), in slot order
+     */
+    public int getDirtyRangeStart(int range)
+    {
+        return dirtyRanges[range * 2];
+    }
+
+    /**
+     * Gets the slot after the last slot of a dirty range.
+     *
+     * @param range The range, in [0, {@link #getDirtyRangeCount()}), in slot order
+     */
+    public int getDirtyRangeEnd(int range)
+    {
+        return dirtyRanges[range * 2 + 1];
+    }
+
+    public void clearDirty()
+    {
+        dirtyRangeCount = 0;
+    }
+
+    private void mergeClosestDirtyRanges()
+    {
+        int closest = 0;
+
+        for (int range = 1; range < dirtyRangeCount - 1; range++)
+        {
+            if (dirtyRanges[range * 2 + 2] - dirtyRanges[range * 2 + 1] < dirtyRanges[closest * 2 + 2] - dirtyRanges[closest * 2 + 1])
+                closest = range;
+        }
+
+        dirtyRanges[closest * 2 + 1] = dirtyRanges[closest * 2 + 3];
+        removeDirtyRange(closest + 1);
+    }
+
+    private void removeDirtyRange(int range)
+    {
+        System.arraycopy(dirtyRanges, range * 2 + 2, dirtyRanges, range * 2, (dirtyRangeCount - range - 1) * 2);
+        dirtyRangeCount--;
+    }
+
+    /**
+     * Forgets every slot, for when the mesh is rebuilt from scratch.
+     */
+    public void clear()
+    {
+        Arrays.fill(slots, -1);
+
+        freeSlotCount = 0;
+
+        clearDirty();
+    }
+
+    public static @NotNull ChunkFaceSlots create()
+    {
+        ChunkFaceSlots result = new ChunkFaceSlots();
+
+        result.clear();
+
+        return result;
+    }
+}
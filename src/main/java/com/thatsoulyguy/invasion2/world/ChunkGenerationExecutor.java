@@ -0,0 +1,302 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs chunk generation work on as many threads as the machine has processors, less {@link #RESERVED_PROCESSORS} for the main
+ * and update threads. Queued work is ordered by the priority of the column it's for, lowest first, and can be re-ranked and
+ * cancelled while it waits. Work not tied to a column runs ahead of it.
+ */
+@CustomConstructor("create")
+public class ChunkGenerationExecutor implements Executor
+{
+    /**
+     * The processors left to the main thread and the update thread.
+     */
+    public static final int RESERVED_PROCESSORS = 2;
+
+    /**
+     * How often {@link #reprioritize()} actually re-ranks the queue.
+     */
+    public static final long REPRIORITIZE_INTERVAL_NANOS = 250_000_000L;
+
+    private static final long THROUGHPUT_WINDOW_NANOS = 1_000_000_000L;
+
+    private final @NotNull PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+
+    private final @NotNull AtomicLong sequence = new AtomicLong();
+
+    private final @NotNull AtomicInteger running = new AtomicInteger();
+
+    private final @NotNull AtomicLong completed = new AtomicLong();
+
+    private @EffectivelyNotNull ThreadPoolExecutor executor;
+
+    private @EffectivelyNotNull ToDoubleFunction<Vector2i> priority;
+
+    private long lastPrioritized = 0;
+
+    private long windowStart = System.nanoTime();
+    private long windowCompleted = 0;
+
+    private volatile double throughput = 0;
+
+    private ChunkGenerationExecutor() { }
+
+    /**
+     * Queues work for a column.
+     *
+     * @param position The x and z position of the column in chunk coordinates, which ranks the work
+     * @param work The work
+     * @return A future for the work's result, which fails with a {@link CancellationException} if the work is cancelled before it starts
+     */
+    public <T> @NotNull CompletableFuture<T> submit(@NotNull Vector2i position, @NotNull Supplier<T> work)
+    {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        executeTask(new Task(new Vector2i(position), priority.applyAsDouble(position), sequence.getAndIncrement(), () ->
+        {
+            if (result.isDone())
+                return;
+
+            try
+            {
+                result.complete(work.get());
+            }
+            catch (Throwable exception)
+            {
+                result.completeExceptionally(exception);
+            }
+        }, result));
+
+        return result;
+    }
+
+    /**
+     * Queues work that isn't for a column. It runs before any column's work and can't be cancelled.
+     */
+    @Override
+    public void execute(@NotNull Runnable command)
+    {
+        executeTask(new Task(null, Double.NEGATIVE_INFINITY, sequence.getAndIncrement(), command, null));
+    }
+
+    /**
+     * Re-ranks the queued work by the current priority of its column, at most once per {@link #REPRIORITIZE_INTERVAL_NANOS}.
+     * Call from one thread.
+     */
+    public void reprioritize()
+    {
+        long now = System.nanoTime();
+
+        if (now - lastPrioritized < REPRIORITIZE_INTERVAL_NANOS || queue.isEmpty())
+            return;
+
+        lastPrioritized = now;
+
+        List<Runnable> tasks = new ArrayList<>();
+
+        queue.drainTo(tasks);
+
+        for (Runnable runnable : tasks)
+        {
+            Task task = (Task) runnable;
+
+            queue.add(task.position() != null ? new Task(task.position(), priority.applyAsDouble(task.position()), task.sequence(), task.work(), task.future()) : task);
+        }
+    }
+
+    /**
+     * Removes the queued work for some columns, cancelling its futures. Work that has started isn't interrupted.
+     *
+     * @param cancelled Tells whether a column's work should be cancelled
+     */
+    public void cancel(@NotNull Predicate<Vector2i> cancelled)
+    {
+        List<Task> removed = new ArrayList<>();
+
+        queue.removeIf(runnable ->
+        {
+            Task task = (Task) runnable;
+
+            if (task.position() == null || !cancelled.test(task.position()))
+                return false;
+
+            removed.add(task);
+
+            return true;
+        });
+
+        removed.forEach(task -> Objects.requireNonNull(task.future()).cancel(false));
+    }
+
+    /**
+     * Gets the number of tasks waiting for a thread.
+     */
+    public int getQueuedCount()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Gets the number of tasks running right now.
+     */
+    public int getRunningCount()
+    {
+        return running.get();
+    }
+
+    public int getThreadCount()
+    {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Gets the number of tasks finished since the executor was created.
+     */
+    public long getCompletedCount()
+    {
+        return completed.get();
+    }
+
+    /**
+     * Gets the number of tasks finished per second, measured over windows of about a second while there is work.
+     */
+    public double getThroughput()
+    {
+        return throughput;
+    }
+
+    /**
+     * Stops accepting work and cancels what is queued, then waits for the running work to finish.
+     */
+    public void shutdown(long timeout, @NotNull TimeUnit unit)
+    {
+        cancel(position -> true);
+
+        executor.shutdown();
+
+        try
+        {
+            if (!executor.awaitTermination(timeout, unit))
+                executor.shutdownNow();
+        }
+        catch (InterruptedException e)
+        {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void executeTask(@NotNull Task task)
+    {
+        try
+        {
+            executor.execute(task);
+        }
+        catch (RejectedExecutionException exception)
+        {
+            if (task.future() != null)
+                task.future().cancel(false);
+        }
+    }
+
+    private void recordCompletion()
+    {
+        long total = completed.incrementAndGet();
+        long now = System.nanoTime();
+
+        synchronized (this)
+        {
+            if (now - windowStart < THROUGHPUT_WINDOW_NANOS)
+                return;
+
+            throughput = (total - windowCompleted) * 1_000_000_000.0 / (now - windowStart);
+            windowStart = now;
+            windowCompleted = total;
+        }
+    }
+
+    /**
+     * Creates an executor sized to the machine.
+     *
+     * @param priority Ranks a column's work; lower runs sooner. Called on any thread that queues work
+     * @return The new executor
+     */
+    public static @NotNull ChunkGenerationExecutor create(@NotNull ToDoubleFunction<Vector2i> priority)
+    {
+        return create(priority, Math.max(1, Runtime.getRuntime().availableProcessors() - RESERVED_PROCESSORS));
+    }
+
+    /**
+     * Creates an executor with a set number of threads.
+     *
+     * @param priority Ranks a column's work; lower runs sooner. Called on any thread that queues work
+     * @param threads The number of threads
+     * @return The new executor
+     */
+    public static @NotNull ChunkGenerationExecutor create(@NotNull ToDoubleFunction<Vector2i> priority, int threads)
+    {
+        ChunkGenerationExecutor result = new ChunkGenerationExecutor();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        result.priority = priority;
+        result.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, result.queue, runnable ->
+        {
+            Thread thread = new Thread(runnable, "Chunk Generation " + threadNumber.incrementAndGet());
+
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+
+            return thread;
+        })
+        {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable runnable)
+            {
+                result.running.incrementAndGet();
+            }
+
+            @Override
+            protected void afterExecute(Runnable runnable, Throwable throwable)
+            {
+                result.running.decrementAndGet();
+                result.recordCompletion();
+            }
+        };
+
+        return result;
+    }
+
+    private record Task(@Nullable Vector2i position, double priority, long sequence, @NotNull Runnable work, @Nullable CompletableFuture<?> future) implements Runnable, Comparable<Task>
+    {
+        @Override
+        public void run()
+        {
+            work.run();
+        }
+
+        @Override
+        public int compareTo(@NotNull Task other)
+        {
+            int result = Double.compare(priority, other.priority);
+
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
+import org.joml.Vector3i;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Generates columns one {@link ChunkStatus} at a time.
+ * <p>
+ * Every stage of every column is its own task on the {@link ChunkGenerationExecutor}, started once the column has finished the stage before and, if
+ * the stage has a {@link ChunkStatus#getNeighborRequirement() neighbor requirement}, once the neighbors have caught up. So the
+ * cheap early stages of the columns around a column run ahead and in parallel, and a stage like {@link ChunkStatus#FEATURES}
+ * can read across column borders. Columns in progress are kept until no neighbor can need them any more, or until
+ * {@link #discard} drops them for leaving the loaded area.
+ */
+@CustomConstructor("create")
+public class ChunkGenerationPipeline
+{
+    /**
+     * The scale passed to every terrain generator.
+     */
+    public static final double TERRAIN_SCALE = 0.006d;
+
+    /**
+     * The most heightmaps kept around: enough for the loaded area at the largest render distance and the ring of columns
+     * generated around it.
+     */
+    public static final int HEIGHTMAP_CACHE_CAPACITY = (2 * World.MAX_RENDER_DISTANCE + 3) * (2 * World.MAX_RENDER_DISTANCE + 3);
+
+    private final @NotNull HeightmapCache heightmapCache = HeightmapCache.create(HEIGHTMAP_CACHE_CAPACITY);
+
+    /**
+     * Columns in progress, guarded by this.
+     */
+    private final @NotNull Map<Vector2i, Generation> generations = new HashMap<>();
+
+    /**
+     * Columns that have placed their features, guarded by this; once a column and all its neighbors are in here, no
+     * stage still needs its blocks.
+     */
+    private final @NotNull Set<Vector2i> placedFeatures = new HashSet<>();
+
+    private @EffectivelyNotNull World world;
+
+    private @EffectivelyNotNull ChunkGenerationExecutor executor;
+
+    private volatile @Nullable StageListener stageListener = null;
+
+    private ChunkGenerationPipeline() { }
+
+    /**
+     * Generates a column, running whatever stages it and its neighbors still need.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @return A future for a new, {@link ChunkStatus#FULL} column, which isn't added to the world; it fails with a
+     * {@link CancellationException} if the column is discarded first
+     */
+    public @NotNull CompletableFuture<ChunkColumn> generate(@NotNull Vector2i position)
+    {
+        return require(position, ChunkStatus.FEATURES).thenCompose(column -> executor.submit(position, () -> createColumn(column)));
+    }
+
+    /**
+     * Drops the columns in progress, and the cached heightmaps, that are no longer wanted. Their remaining stages are cancelled.
+     *
+     * @param wanted Tells whether a column should be kept
+     */
+    public synchronized void discard(@NotNull Predicate<Vector2i> wanted)
+    {
+        generations.keySet().removeIf(wanted.negate());
+        placedFeatures.removeIf(wanted.negate());
+        heightmapCache.discard(wanted);
+    }
+
+    /**
+     * Gets the heightmaps of the columns generated around the loaded area.
+     */
+    public @NotNull HeightmapCache getHeightmapCache()
+    {
+        return heightmapCache;
+    }
+
+    /**
+     * Sets what is told about every stage a column finishes, including {@link ChunkStatus#FULL}.
+     *
+     * @param stageListener The listener, or null for none; it's called on the generation threads
+     */
+    public void setStageListener(@Nullable StageListener stageListener)
+    {
+        this.stageListener = stageListener;
+    }
+
+    /**
+     * Gets a future for a column reaching a stage, setting up the tasks for it and everything it depends on.
+     */
+    private synchronized @NotNull CompletableFuture<ChunkColumn> require(@NotNull Vector2i position, @NotNull ChunkStatus status)
+    {
+        Generation generation = generations.computeIfAbsent(position, key -> new Generation(ChunkColumn.create(key)));
+
+        CompletableFuture<ChunkColumn> result = generation.stages.get(status);
+
+        if (result != null)
+            return result;
+
+        ChunkStatus previous = status.getPrevious();
+
+        if (previous == null)
+            result = CompletableFuture.completedFuture(generation.column);
+        else
+        {
+            CompletableFuture<ChunkColumn> self = require(position, previous);
+            List<CompletableFuture<ChunkColumn>> neighbors = new ArrayList<>();
+
+            ChunkStatus neighborStatus = status.getNeighborRequirement();
+
+            if (neighborStatus != null)
+            {
+                for (int x = -1; x <= 1; x++)
+                {
+                    for (int z = -1; z <= 1; z++)
+                    {
+                        if (x != 0 || z != 0)
+                            neighbors.add(require(new Vector2i(position.x + x, position.y + z), neighborStatus));
+                    }
+                }
+            }
+
+            List<CompletableFuture<ChunkColumn>> dependencies = new ArrayList<>(neighbors);
+
+            dependencies.add(self);
+
+            result = CompletableFuture.allOf(dependencies.toArray(CompletableFuture[]::new)).thenCompose(ignored -> executor.submit(position, () ->
+            {
+                List<ChunkColumn> neighborColumns = neighborStatus != null ? neighbors.stream().map(CompletableFuture::join).toList() : null;
+
+                return runStage(generation, status, neighborColumns);
+            }));
+
+            result.whenComplete((column, exception) ->
+            {
+                if (exception != null)
+                    forget(position, generation);
+            });
+        }
+
+        generation.stages.put(status, result);
+
+        return result;
+    }
+
+    private @NotNull ChunkColumn runStage(@NotNull Generation generation, @NotNull ChunkStatus status, @Nullable List<ChunkColumn> neighbors)
+    {
+        ChunkColumn column = generation.column;
+        Vector2i position = column.getPosition();
+
+        if (!isCurrent(position, generation))
+            throw new CancellationException("Column " + position + " was discarded");
+
+        long start = System.nanoTime();
+
+        GenerationRegion region = GenerationRegion.create(column, neighbors);
+
+        for (TerrainGenerator generator : world.getTerrainGenerators())
+        {
+            if (generator.getStage() != status)
+                continue;
+
+            generator.setSeed(world.seed);
+            generator.setScale(TERRAIN_SCALE);
+            generator.setHeightmapCache(heightmapCache);
+            generator.generate(region);
+        }
+
+        column.setStatus(status);
+
+        finishStage(position, status, start);
+
+        if (status == ChunkStatus.FEATURES)
+            releaseFinished(position);
+
+        return column;
+    }
+
+    /**
+     * Turns a column that has placed its features into a new column with sections, leaving the generated one for its neighbors.
+     */
+    private @NotNull ChunkColumn createColumn(@NotNull ChunkColumn generated)
+    {
+        long start = System.nanoTime();
+
+        Vector2i position = generated.getPosition();
+        short[][][][] blocks = generated.getGeneratingBlocks();
+
+        ChunkColumn result = ChunkColumn.create(position);
+
+        result.copyHeightmap(generated);
+
+        for (int y = 0; y < World.VERTICAL_CHUNKS; y++)
+            result.setSection(y, Chunk.create(world, new Vector3i(position.x, y, position.y), blocks[y]));
+
+        result.setStatus(ChunkStatus.FULL);
+
+        finishStage(position, ChunkStatus.FULL, start);
+
+        return result;
+    }
+
+    private void finishStage(@NotNull Vector2i position, @NotNull ChunkStatus status, long start)
+    {
+        StageListener listener = stageListener;
+
+        if (listener != null)
+            listener.onStageFinished(position, status, System.nanoTime() - start);
+    }
+
+    /**
+     * Drops the columns around one that just placed its features, if they and all their neighbors have placed theirs too.
+     */
+    private synchronized void releaseFinished(@NotNull Vector2i position)
+    {
+        placedFeatures.add(new Vector2i(position));
+
+        for (int x = -1; x <= 1; x++)
+        {
+            for (int z = -1; z <= 1; z++)
+            {
+                Vector2i candidate = new Vector2i(position.x + x, position.y + z);
+
+                if (hasNeighborhoodPlacedFeatures(candidate))
+                    generations.remove(candidate);
+            }
+        }
+    }
+
+    private boolean hasNeighborhoodPlacedFeatures(@NotNull Vector2i position)
+    {
+        for (int x = -1; x <= 1; x++)
+        {
+            for (int z = -1; z <= 1; z++)
+            {
+                if (!placedFeatures.contains(new Vector2i(position.x + x, position.y + z)))
+                    return false;
+            }
+        }
+
+        return true;
+    }
+
+    private synchronized boolean isCurrent(@NotNull Vector2i position, @NotNull Generation generation)
+    {
+        return generations.get(position) == generation;
+    }
+
+    private synchronized void forget(@NotNull Vector2i position, @NotNull Generation generation)
+    {
+        generations.remove(position, generation);
+    }
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param world The world whose terrain generators and seed are used, and that the generated chunks belong to
+     * @param executor The executor that runs the stages, ranking each by the column it's for
+     * @return The new pipeline
+     */
+    public static @NotNull ChunkGenerationPipeline create(@NotNull World world, @NotNull ChunkGenerationExecutor executor)
+    {
+        ChunkGenerationPipeline result = new ChunkGenerationPipeline();
+
+        result.world = world;
+        result.executor = executor;
+
+        return result;
+    }
+
+    /**
+     * Told about each stage a column finishes.
+     */
+    @FunctionalInterface
+    public interface StageListener
+    {
+        /**
+         * @param position The x and z position of the column in chunk coordinates
+         * @param status The stage it finished
+         * @param nanos How long the stage took to run, not counting time spent queued
+         */
+        void onStageFinished(@NotNull Vector2i position, @NotNull ChunkStatus status, long nanos);
+    }
+
+    private static class Generation
+    {
+        private final @NotNull ChunkColumn column;
+
+        private final @NotNull EnumMap<ChunkStatus, CompletableFuture<ChunkColumn>> stages = new EnumMap<>(ChunkStatus.class);
+
+        private Generation(@NotNull ChunkColumn column)
+        {
+            this.column = column;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3i;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Maps chunk coordinates to loaded chunks without allocating, for lookups on the block query path.
+ * <p>
+ * An open-addressing table with linear probing, keyed by the coordinates packed into a long (see {@link #pack(int, int, int)}).
+ * Lookups are lock-free unless they race a write, in which case they retry under the read lock; writes are serialized.
+ */
+@CustomConstructor("create")
+public class ChunkIndex
+{
+    private static final float MAX_LOAD_FACTOR = 0.5f;
+
+    private final @NotNull StampedLock lock = new StampedLock();
+
+    private long[] keys;
+    private Chunk[] values;
+
+    private int size = 0;
+
+    private ChunkIndex() { }
+
+    /**
+     * Gets the chunk at the given position.
+     *
+     * @param x The x position in chunk coordinates
+     * @param y The y position in chunk coordinates
+     * @param z The z position in chunk coordinates
+     * @return The chunk, or null if none is indexed there
+     */
+    public @Nullable Chunk get(int x, int y, int z)
+    {
+        long key = pack(x, y, z);
+
+        long stamp = lock.tryOptimisticRead();
+
+        if (stamp != 0)
+        {
+            // An optimistic read can see the arrays mid-resize; find() copes and validate() throws the result away
+            Chunk result = find(keys, values, key);
+
+            if (lock.validate(stamp))
+                return result;
+        }
+
+        stamp = lock.readLock();
+
+        try
+        {
+            return find(keys, values, key);
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Adds a chunk at its position, replacing any chunk already there.
+     */
+    public void put(@NotNull Chunk chunk)
+    {
+        Vector3i position = chunk.getPosition();
+        long key = pack(position.x, position.y, position.z);
+
+        long stamp = lock.writeLock();
+
+        try
+        {
+            if (size + 1 > keys.length * MAX_LOAD_FACTOR)
+                resize(keys.length * 2);
+
+            int mask = keys.length - 1;
+
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask)
+            {
+                if (values[slot] == null)
+                {
+                    keys[slot] = key;
+                    values[slot] = chunk;
+                    size++;
+                    return;
+                }
+
+                if (keys[slot] == key)
+                {
+                    values[slot] = chunk;
+                    return;
+                }
+            }
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the chunk at the given position, if there is one.
+     *
+     * @return The removed chunk, or null if none was indexed there
+     */
+    public @Nullable Chunk remove(int x, int y, int z)
+    {
+        long key = pack(x, y, z);
+
+        long stamp = lock.writeLock();
+
+        try
+        {
+            int mask = keys.length - 1;
+
+            for (int slot = hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask)
+            {
+                if (keys[slot] != key)
+                    continue;
+
+                Chunk result = values[slot];
+
+                values[slot] = null;
+                size--;
+
+                closeGap(slot);
+
+                return result;
+            }
+
+            return null;
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Shifts the entries after a removed slot back, so no probe sequence runs into the hole before reaching its key.
+     */
+    private void closeGap(int emptySlot)
+    {
+        int mask = keys.length - 1;
+
+        for (int slot = (emptySlot + 1) & mask; values[slot] != null; slot = (slot + 1) & mask)
+        {
+            int home = hash(keys[slot]) & mask;
+
+            if (((slot - home) & mask) < ((slot - emptySlot) & mask))
+                continue;
+
+            keys[emptySlot] = keys[slot];
+            values[emptySlot] = values[slot];
+            values[slot] = null;
+
+            emptySlot = slot;
+        }
+    }
+
+    private void resize(int capacity)
+    {
+        long[] oldKeys = keys;
+        Chunk[] oldValues = values;
+
+        long[] newKeys = new long[capacity];
+        Chunk[] newValues = new Chunk[capacity];
+
+        int mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldValues[i] == null)
+                continue;
+
+            int slot = hash(oldKeys[i]) & mask;
+
+            while (newValues[slot] != null)
+                slot = (slot + 1) & mask;
+
+            newKeys[slot] = oldKeys[i];
+            newValues[slot] = oldValues[i];
+        }
+
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static @Nullable Chunk find(long[] keys, Chunk[] values, long key)
+    {
+        if (keys.length != values.length)
+            return null;
+
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        for (int probes = 0; probes < keys.length; probes++, slot = (slot + 1) & mask)
+        {
+            Chunk value = values[slot];
+
+            if (value == null)
+                return null;
+
+            if (keys[slot] == key)
+                return value;
+        }
+
+        return null;
+    }
+
+    private static int hash(long key)
+    {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+
+        return (int) key;
+    }
+
+    /**
+     * Packs chunk coordinates into a long: 26 bits each for x and z, 12 bits for y.
+     */
+    public static long pack(int x, int y, int z)
+    {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | ((long) y & 0xFFFL);
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param expectedChunks The number of chunks to make room for before the table has to grow
+     * @return The new index
+     */
+    public static @NotNull ChunkIndex create(int expectedChunks)
+    {
+        ChunkIndex result = new ChunkIndex();
+
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedChunks / MAX_LOAD_FACTOR)) - 1) << 1;
+
+        result.keys = new long[capacity];
+        result.values = new Chunk[capacity];
+
+        return result;
+    }
+}
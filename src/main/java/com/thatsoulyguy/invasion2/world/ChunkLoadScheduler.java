@@ -0,0 +1,257 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Decides which columns around the chunk loader get generated, and in what order.
+ * <p>
+ * The wanted area is only recomputed when the loader crosses into another column or the distance changes: the columns are
+ * queued by walking a precomputed spiral of offsets, and loads running for columns that left the area are cancelled.
+ * Queued columns are ordered by a {@link ChunkPriorityFunction} and re-ranked as the view changes; only a few are started at
+ * a time, so the rest of the queue can still be reordered.
+ * <p>
+ * {@link #update} must only be called from one thread.
+ */
+@CustomConstructor("create")
+public class ChunkLoadScheduler
+{
+    /**
+     * How many columns past the load distance a column may be before it's unloaded, or its generation cancelled.
+     */
+    public static final int UNLOAD_MARGIN = 1;
+
+    /**
+     * How often queued columns are re-ranked against the current view while there are any.
+     */
+    public static final long REPRIORITIZE_INTERVAL_NANOS = 250_000_000L;
+
+    private final @NotNull PriorityQueue<Request> pending = new PriorityQueue<>();
+
+    private final @NotNull ConcurrentMap<Vector2i, CompletableFuture<?>> running = new ConcurrentHashMap<>();
+
+    private @EffectivelyNotNull Function<Vector2i, CompletableFuture<?>> loader;
+
+    private @EffectivelyNotNull ChunkPriorityFunction priority;
+
+    private int maxRunning;
+
+    private volatile @Nullable Vector2i center;
+
+    private volatile int distance = -1;
+
+    /**
+     * Column offsets within the distance, as x and z pairs, sorted by distance and then angle.
+     */
+    private int @NotNull [] spiral = new int[0];
+
+    private long lastPrioritized = 0;
+
+    private ChunkLoadScheduler() { }
+
+    /**
+     * Starts loading queued columns, recomputing the queue first if the center moved to another column or the distance changed.
+     *
+     * @param centerX The x position of the chunk loader's column
+     * @param centerZ The z position of the chunk loader's column
+     * @param distance The load distance in columns
+     * @param view The chunk loader's current view, for ranking the queue
+     * @param isLoaded Tells whether a column is already loaded
+     * @return Whether the wanted area changed, so columns outside it should be unloaded
+     */
+    public boolean update(int centerX, int centerZ, int distance, @NotNull ChunkLoadView view, @NotNull Predicate<Vector2i> isLoaded)
+    {
+        Vector2i currentCenter = center;
+
+        boolean changed = currentCenter == null || currentCenter.x != centerX || currentCenter.y != centerZ || distance != this.distance;
+
+        if (changed)
+            recompute(new Vector2i(centerX, centerZ), distance, view, isLoaded);
+        else if (!pending.isEmpty() && System.nanoTime() - lastPrioritized >= REPRIORITIZE_INTERVAL_NANOS)
+            reprioritize(view);
+
+        while (running.size() < maxRunning)
+        {
+            Request request = pending.poll();
+
+            if (request == null)
+                break;
+
+            if (isLoaded.test(request.position()) || running.containsKey(request.position()))
+                continue;
+
+            submit(request.position());
+        }
+
+        return changed;
+    }
+
+    /**
+     * Checks whether a column is close enough to the current center to be kept loaded.
+     */
+    public boolean isWanted(@NotNull Vector2i position)
+    {
+        Vector2i currentCenter = center;
+
+        if (currentCenter == null)
+            return false;
+
+        int range = distance + UNLOAD_MARGIN;
+
+        return Math.abs(position.x - currentCenter.x) <= range && Math.abs(position.y - currentCenter.y) <= range;
+    }
+
+    /**
+     * Gets the number of columns queued or being loaded.
+     */
+    public int getPendingCount()
+    {
+        return pending.size() + running.size();
+    }
+
+    /**
+     * Drops the queue and cancels all running loads.
+     */
+    public void cancelAll()
+    {
+        pending.clear();
+
+        running.values().forEach(task -> task.cancel(true));
+        running.clear();
+    }
+
+    private void recompute(@NotNull Vector2i newCenter, int newDistance, @NotNull ChunkLoadView view, @NotNull Predicate<Vector2i> isLoaded)
+    {
+        if (newDistance != distance)
+            spiral = createSpiral(newDistance);
+
+        distance = newDistance;
+        center = newCenter;
+
+        running.entrySet().removeIf(entry ->
+        {
+            if (isWanted(entry.getKey()))
+                return false;
+
+            entry.getValue().cancel(true);
+
+            return true;
+        });
+
+        pending.clear();
+
+        int sectionY = getSectionY(view);
+
+        for (int i = 0; i < spiral.length; i += 2)
+        {
+            Vector2i position = new Vector2i(newCenter.x + spiral[i], newCenter.y + spiral[i + 1]);
+
+            if (!isLoaded.test(position) && !running.containsKey(position))
+                pending.add(new Request(position, priority.getPriority(position.x, sectionY, position.y, view), i / 2));
+        }
+
+        lastPrioritized = System.nanoTime();
+    }
+
+    private void reprioritize(@NotNull ChunkLoadView view)
+    {
+        List<Request> requests = new ArrayList<>(pending);
+
+        pending.clear();
+
+        int sectionY = getSectionY(view);
+
+        for (Request request : requests)
+            pending.add(new Request(request.position(), priority.getPriority(request.position().x, sectionY, request.position().y, view), request.order()));
+
+        lastPrioritized = System.nanoTime();
+    }
+
+    /**
+     * Ranks a column against a view the same way the queue is ranked.
+     */
+    public double getPriority(@NotNull Vector2i position, @NotNull ChunkLoadView view)
+    {
+        return priority.getPriority(position.x, getSectionY(view), position.y, view);
+    }
+
+    private static int getSectionY(@NotNull ChunkLoadView view)
+    {
+        return Math.clamp(Math.floorDiv((int) Math.floor(view.position().y), Chunk.SIZE), 0, World.VERTICAL_CHUNKS - 1);
+    }
+
+    private void submit(@NotNull Vector2i position)
+    {
+        CompletableFuture<?> task = loader.apply(position);
+
+        running.put(position, task);
+
+        task.whenComplete((result, exception) -> running.remove(position, task));
+    }
+
+    private static int @NotNull [] createSpiral(int distance)
+    {
+        List<int[]> offsets = new ArrayList<>();
+
+        for (int x = -distance; x <= distance; x++)
+        {
+            for (int z = -distance; z <= distance; z++)
+                offsets.add(new int[] { x, z });
+        }
+
+        offsets.sort(Comparator.<int[]>comparingInt(offset -> offset[0] * offset[0] + offset[1] * offset[1]).thenComparingDouble(offset -> Math.atan2(offset[1], offset[0])));
+
+        int[] result = new int[offsets.size() * 2];
+
+        for (int i = 0; i < offsets.size(); i++)
+        {
+            result[i * 2] = offsets.get(i)[0];
+            result[i * 2 + 1] = offsets.get(i)[1];
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param maxRunning The most columns loading at once
+     * @param loader Starts loading a column and returns a future for it, which is cancelled if the column is no longer wanted
+     * @param priority Ranks the queued columns
+     * @return The new scheduler
+     */
+    public static @NotNull ChunkLoadScheduler create(int maxRunning, @NotNull Function<Vector2i, CompletableFuture<?>> loader, @NotNull ChunkPriorityFunction priority)
+    {
+        ChunkLoadScheduler result = new ChunkLoadScheduler();
+
+        result.priority = priority;
+        result.maxRunning = maxRunning;
+        result.loader = loader;
+
+        return result;
+    }
+
+    private record Request(@NotNull Vector2i position, double priority, int order) implements Comparable<Request>
+    {
+        @Override
+        public int compareTo(@NotNull Request other)
+        {
+            int result = Double.compare(priority, other.priority);
+
+            return result != 0 ? result : Integer.compare(order, other.order);
+        }
+    }
+}
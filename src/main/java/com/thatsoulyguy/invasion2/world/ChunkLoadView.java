@@ -0,0 +1,13 @@
+package com.thatsoulyguy.invasion2.world;
+
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector3f;
+
+/**
+ * What a {@link ChunkPriorityFunction} knows about the chunk loader, captured once per frame.
+ *
+ * @param position The loader's position in world space
+ * @param forward The direction the loader is looking, normalized, or zero if it has no view
+ * @param velocity The loader's velocity in blocks per second
+ */
+public record ChunkLoadView(@NotNull Vector3f position, @NotNull Vector3f forward, @NotNull Vector3f velocity) { }
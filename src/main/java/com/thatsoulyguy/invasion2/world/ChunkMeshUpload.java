@@ -0,0 +1,17 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.render.MeshData;
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector3f;
+
+import java.util.List;
+
+/**
+ * A chunk mesh built by the meshing stage, waiting for the main thread to upload it.
+ *
+ * @param chunk The chunk the mesh belongs to
+ * @param data The geometry to upload
+ * @param colliderVoxels The collision voxels built along with the geometry
+ * @param version The chunk's mesh version when it was built; an upload is dropped once a newer mesh has been built
+ */
+public record ChunkMeshUpload(@NotNull Chunk chunk, @NotNull MeshData data, @NotNull List<Vector3f> colliderVoxels, int version) { }
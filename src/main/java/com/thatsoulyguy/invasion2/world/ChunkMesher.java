@@ -0,0 +1,585 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.Static;
+import com.thatsoulyguy.invasion2.block.Block;
+import com.thatsoulyguy.invasion2.block.BlockRegistry;
+import com.thatsoulyguy.invasion2.render.MeshData;
+import com.thatsoulyguy.invasion2.render.PackedVertex;
+import com.thatsoulyguy.invasion2.render.PackedVertexTable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds chunk geometry from a {@link ChunkSnapshot}.
+ * <p>
+ * Faces are written straight into a per-thread {@link MeshData} scratch buffer as {@link PackedVertex} vertices using static face tables,
+ * so meshing a chunk allocates nothing per block or per vertex; only the finished, exactly sized arrays are copied out.
+ * <p>
+ * Annotates: {@code @Static}
+ */
+@Static
+public class ChunkMesher
+{
+    /**
+     * The face normals, in the order +z, -z, +y, -y, +x, -x.
+     */
+    private static final int[][] NORMALS =
+    {
+        { 0, 0, 1 },
+        { 0, 0, -1 },
+        { 0, 1, 0 },
+        { 0, -1, 0 },
+        { 1, 0, 0 },
+        { -1, 0, 0 }
+    };
+
+    /**
+     * The corner offsets of each face, relative to the block's minimum corner.
+     */
+    private static final int[][][] CORNERS =
+    {
+        { { 0, 0, 1 }, { 0, 1, 1 }, { 1, 1, 1 }, { 1, 0, 1 } },
+        { { 1, 0, 0 }, { 1, 1, 0 }, { 0, 1, 0 }, { 0, 0, 0 } },
+        { { 0, 1, 0 }, { 0, 1, 1 }, { 1, 1, 1 }, { 1, 1, 0 } },
+        { { 1, 0, 0 }, { 1, 0, 1 }, { 0, 0, 1 }, { 0, 0, 0 } },
+        { { 1, 0, 0 }, { 1, 0, 1 }, { 1, 1, 1 }, { 1, 1, 0 } },
+        { { 0, 1, 0 }, { 0, 1, 1 }, { 0, 0, 1 }, { 0, 0, 0 } }
+    };
+
+    /**
+     * The in-plane axes of each face, as used by greedy merging and ambient occlusion.
+     */
+    private static final int[] U_AXES = { 0, 0, 2, 2, 1, 1 };
+    private static final int[] V_AXES = { 1, 1, 0, 0, 2, 2 };
+
+    private static final int[] TOP_BOTTOM_WINDING = { 0, 1, 2, 2, 3, 0 };
+    private static final int[] SIDE_WINDING = { 0, 2, 1, 2, 0, 3 };
+
+    /**
+     * The windings above split along the 0-2 diagonal; these split along 1-3.
+     */
+    private static final int[] TOP_BOTTOM_WINDING_FLIPPED = { 1, 2, 3, 3, 0, 1 };
+    private static final int[] SIDE_WINDING_FLIPPED = { 1, 3, 2, 3, 1, 0 };
+
+    /**
+     * Packed ambient occlusion of a face with every corner open, used when ambient occlusion is off.
+     */
+    private static final int NO_AMBIENT_OCCLUSION = 0xFF;
+
+    private static final int[] TEXTURE_ROTATIONS = { 180, 180, 0, 0, -90, 90 };
+
+    /**
+     * Maps a face to its index in {@link Block#getTextures()} and {@link Block#getColors()}.
+     */
+    private static final int[] TEXTURE_INDICES = { 2, 3, 0, 1, 4, 5 };
+
+    private static final int FACE_TILE = 0;
+    private static final int FACE_TINT = 1;
+    private static final int FACE_TILE_ORIGIN = 2;
+    private static final int FACE_TILE_U_STEP = 4;
+    private static final int FACE_TILE_V_STEP = 6;
+    private static final int FACE_SIZE = 8;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private ChunkMesher() { }
+
+    /**
+     * Builds the geometry of the chunk in the snapshot.
+     *
+     * @param snapshot The blocks of the chunk and its neighbors
+     * @param textureAtlas The atlas holding the block textures
+     * @param greedy Whether to merge adjacent faces of the same block into larger quads
+     * @param ambientOcclusion Whether to darken vertices at corners occluded by neighboring blocks
+     * @param colliderVoxels Receives the center of every block with at least one face exposed to air
+     * @return The geometry, owned by the caller
+     */
+    public static @NotNull MeshData build(@NotNull ChunkSnapshot snapshot, @NotNull TextureAtlas textureAtlas, boolean greedy, boolean ambientOcclusion, @NotNull List<Vector3f> colliderVoxels)
+    {
+        return build(snapshot, textureAtlas, greedy, ambientOcclusion, colliderVoxels, null);
+    }
+
+    /**
+     * Builds the geometry of the chunk in the snapshot, recording where each face is placed.
+     *
+     * @param faceSlots Cleared and filled with the quad of each face, so {@link #updateBlock} can patch the result later; ignored when greedy
+     */
+    public static @NotNull MeshData build(@NotNull ChunkSnapshot snapshot, @NotNull TextureAtlas textureAtlas, boolean greedy, boolean ambientOcclusion, @NotNull List<Vector3f> colliderVoxels, @Nullable ChunkFaceSlots faceSlots)
+    {
+        Scratch scratch = SCRATCH.get();
+
+        scratch.setTextureAtlas(textureAtlas);
+        scratch.data.clear();
+
+        if (faceSlots != null)
+            faceSlots.clear();
+
+        for (int z = 0; z < Chunk.SIZE; z++)
+        {
+            for (int y = 0; y < Chunk.SIZE; y++)
+            {
+                for (int x = 0; x < Chunk.SIZE; x++)
+                {
+                    short blockId = snapshot.getBlock(x, y, z);
+
+                    if (blockId == BlockRegistry.BLOCK_AIR.getId())
+                        continue;
+
+                    boolean exposed = false;
+
+                    for (int face = 0; face < NORMALS.length; face++)
+                    {
+                        int[] normal = NORMALS[face];
+
+                        if (!snapshot.isAir(x + normal[0], y + normal[1], z + normal[2]))
+                            continue;
+
+                        exposed = true;
+
+                        if (!greedy)
+                            addFace(scratch, faceSlots, blockId, face, x, y, z, ambientOcclusion ? getAmbientOcclusion(snapshot, face, x, y, z) : NO_AMBIENT_OCCLUSION);
+                    }
+
+                    if (exposed)
+                        colliderVoxels.add(new Vector3f(x + 0.5f, y + 0.5f, z + 0.5f));
+                }
+            }
+        }
+
+        if (greedy)
+            addGreedyFaces(scratch, snapshot, ambientOcclusion);
+
+        return scratch.data.copy();
+    }
+
+    private static void addFace(@NotNull Scratch scratch, @Nullable ChunkFaceSlots faceSlots, short blockId, int face, int x, int y, int z, int ambientOcclusion)
+    {
+        int[] texture = scratch.getFaceTexture(blockId, face);
+
+        if (texture == null)
+            return;
+
+        MeshData data = scratch.data;
+
+        int slot = data.getVertexCount() / 4;
+
+        data.resize(data.getVertexCount() + 4, data.getIndexCount() + 6);
+
+        writeFace(data, slot, texture, face, x, y, z, ambientOcclusion);
+
+        if (faceSlots != null)
+            faceSlots.set(Chunk.toIndex(x, y, z), face, slot);
+    }
+
+    /**
+     * Writes a face into its slot: vertices [slot * 4, slot * 4 + 4) and indices [slot * 6, slot * 6 + 6).
+     */
+    private static void writeFace(@NotNull MeshData data, int slot, int @NotNull [] texture, int face, int x, int y, int z, int ambientOcclusion)
+    {
+        int start = slot * 4;
+
+        int uAxis = U_AXES[face];
+        int vAxis = V_AXES[face];
+
+        for (int corner = 0; corner < 4; corner++)
+        {
+            int[] offset = CORNERS[face][corner];
+
+            data.setVertex(start + corner, encodeVertex(texture, face, x + offset[0], y + offset[1], z + offset[2], offset[uAxis], offset[vAxis], getCornerLevel(ambientOcclusion, corner)));
+        }
+
+        int[] winding = getWinding(face, ambientOcclusion);
+
+        for (int i = 0; i < winding.length; i++)
+            data.setIndex(slot * 6 + i, start + winding[i]);
+    }
+
+    /**
+     * Packs a corner of a face, given how many tiles it lies from the face's origin corner along the face's u and v axes.
+     */
+    private static long encodeVertex(int @NotNull [] texture, int face, int x, int y, int z, int tilesU, int tilesV, int ambientOcclusion)
+    {
+        int u = texture[FACE_TILE_ORIGIN] + texture[FACE_TILE_U_STEP] * tilesU + texture[FACE_TILE_V_STEP] * tilesV;
+        int v = texture[FACE_TILE_ORIGIN + 1] + texture[FACE_TILE_U_STEP + 1] * tilesU + texture[FACE_TILE_V_STEP + 1] * tilesV;
+
+        return PackedVertex.encode(x, y, z, face, u, v, texture[FACE_TILE], texture[FACE_TINT], ambientOcclusion);
+    }
+
+    /**
+     * Computes the ambient occlusion level of each corner of a face, packed two bits per corner.
+     * A corner's level counts how many of the three blocks touching it in the layer in front of the face are open,
+     * except that a corner boxed in by both side blocks is fully occluded regardless of the diagonal block.
+     */
+    private static int getAmbientOcclusion(@NotNull ChunkSnapshot snapshot, int face, int x, int y, int z)
+    {
+        int[] normal = NORMALS[face];
+
+        int uAxis = U_AXES[face];
+        int vAxis = V_AXES[face];
+
+        int frontX = x + normal[0];
+        int frontY = y + normal[1];
+        int frontZ = z + normal[2];
+
+        int result = 0;
+
+        for (int corner = 0; corner < 4; corner++)
+        {
+            int[] offset = CORNERS[face][corner];
+
+            int uX = 0, uY = 0, uZ = 0;
+            int vX = 0, vY = 0, vZ = 0;
+
+            int uStep = offset[uAxis] == 1 ? 1 : -1;
+            int vStep = offset[vAxis] == 1 ? 1 : -1;
+
+            switch (uAxis)
+            {
+                case 0 -> uX = uStep;
+                case 1 -> uY = uStep;
+                default -> uZ = uStep;
+            }
+
+            switch (vAxis)
+            {
+                case 0 -> vX = vStep;
+                case 1 -> vY = vStep;
+                default -> vZ = vStep;
+            }
+
+            boolean side1 = !snapshot.isAir(frontX + uX, frontY + uY, frontZ + uZ);
+            boolean side2 = !snapshot.isAir(frontX + vX, frontY + vY, frontZ + vZ);
+            boolean diagonal = !snapshot.isAir(frontX + uX + vX, frontY + uY + vY, frontZ + uZ + vZ);
+
+            int level = (side1 && side2) ? 0 : 3 - ((side1 ? 1 : 0) + (side2 ? 1 : 0) + (diagonal ? 1 : 0));
+
+            result |= level << (corner * 2);
+        }
+
+        return result;
+    }
+
+    private static int getCornerLevel(int ambientOcclusion, int corner)
+    {
+        return (ambientOcclusion >>> (corner * 2)) & 3;
+    }
+
+    /**
+     * Picks the diagonal to split a face along. Splitting along the darker diagonal keeps the occlusion gradient symmetric
+     * instead of smearing one dark corner across a whole triangle.
+     */
+    private static int @NotNull [] getWinding(int face, int ambientOcclusion)
+    {
+        boolean flip = getCornerLevel(ambientOcclusion, 0) + getCornerLevel(ambientOcclusion, 2) > getCornerLevel(ambientOcclusion, 1) + getCornerLevel(ambientOcclusion, 3);
+
+        if (NORMALS[face][1] != 0)
+            return flip ? TOP_BOTTOM_WINDING_FLIPPED : TOP_BOTTOM_WINDING;
+        else
+            return flip ? SIDE_WINDING_FLIPPED : SIDE_WINDING;
+    }
+
+    /**
+     * Re-evaluates the faces of one block in a mesh built by {@link #build} without greedy merging, editing the data in place.
+     * Faces that appeared are written into free or new slots, faces that disappeared are collapsed into degenerate quads,
+     * and every touched slot is marked dirty in {@code faceSlots}.
+     *
+     * @param snapshot The current blocks of the chunk and its neighbors
+     * @param data The mesh data to edit
+     * @param faceSlots The face slots recorded when the data was built
+     * @param ambientOcclusion Whether the data was built with ambient occlusion
+     * @return True if the block has at least one face exposed to air
+     */
+    public static boolean updateBlock(@NotNull ChunkSnapshot snapshot, @NotNull TextureAtlas textureAtlas, @NotNull MeshData data, @NotNull ChunkFaceSlots faceSlots, boolean ambientOcclusion, int x, int y, int z)
+    {
+        Scratch scratch = SCRATCH.get();
+
+        scratch.setTextureAtlas(textureAtlas);
+
+        short blockId = snapshot.getBlock(x, y, z);
+        int blockIndex = Chunk.toIndex(x, y, z);
+
+        boolean solid = blockId != BlockRegistry.BLOCK_AIR.getId();
+        boolean exposed = false;
+
+        for (int face = 0; face < NORMALS.length; face++)
+        {
+            int[] normal = NORMALS[face];
+
+            boolean visible = solid && snapshot.isAir(x + normal[0], y + normal[1], z + normal[2]);
+
+            exposed |= visible;
+
+            int[] texture = visible ? scratch.getFaceTexture(blockId, face) : null;
+
+            int slot = faceSlots.get(blockIndex, face);
+
+            if (texture == null)
+            {
+                if (slot == -1)
+                    continue;
+
+                for (int i = 0; i < 6; i++)
+                    data.setIndex(slot * 6 + i, slot * 4);
+
+                faceSlots.set(blockIndex, face, -1);
+                faceSlots.freeSlot(slot);
+                faceSlots.markDirty(slot);
+
+                continue;
+            }
+
+            if (slot == -1)
+            {
+                slot = faceSlots.takeFreeSlot();
+
+                if (slot == -1)
+                {
+                    slot = data.getVertexCount() / 4;
+                    data.resize(data.getVertexCount() + 4, data.getIndexCount() + 6);
+                }
+
+                faceSlots.set(blockIndex, face, slot);
+            }
+
+            writeFace(data, slot, texture, face, x, y, z, ambientOcclusion ? getAmbientOcclusion(snapshot, face, x, y, z) : NO_AMBIENT_OCCLUSION);
+
+            faceSlots.markDirty(slot);
+        }
+
+        return exposed;
+    }
+
+    /**
+     * Merges visible faces slice by slice. Each slice of each face direction builds a mask of visible faces keyed by block id
+     * and ambient occlusion, and rectangles of equal keys are grown first along the slice's u axis, then along v.
+     * Neighboring faces share the occlusion of their shared corners, so faces only merge where the occlusion is flat.
+     */
+    private static void addGreedyFaces(@NotNull Scratch scratch, @NotNull ChunkSnapshot snapshot, boolean ambientOcclusion)
+    {
+        int[] mask = scratch.mask;
+        int[] cell = scratch.cell;
+
+        for (int face = 0; face < NORMALS.length; face++)
+        {
+            int[] normal = NORMALS[face];
+
+            int axis = normal[0] != 0 ? 0 : (normal[1] != 0 ? 1 : 2);
+            int uAxis = U_AXES[face];
+            int vAxis = V_AXES[face];
+
+            for (int depth = 0; depth < Chunk.SIZE; depth++)
+            {
+                cell[axis] = depth;
+
+                for (int v = 0; v < Chunk.SIZE; v++)
+                {
+                    cell[vAxis] = v;
+
+                    for (int u = 0; u < Chunk.SIZE; u++)
+                    {
+                        cell[uAxis] = u;
+
+                        short blockId = snapshot.getBlock(cell[0], cell[1], cell[2]);
+
+                        boolean visible = blockId != BlockRegistry.BLOCK_AIR.getId() && snapshot.isAir(cell[0] + normal[0], cell[1] + normal[1], cell[2] + normal[2]);
+
+                        if (visible)
+                        {
+                            int occlusion = ambientOcclusion ? getAmbientOcclusion(snapshot, face, cell[0], cell[1], cell[2]) : NO_AMBIENT_OCCLUSION;
+
+                            mask[u + v * Chunk.SIZE] = (blockId + 1) | (occlusion << 16);
+                        }
+                        else
+                            mask[u + v * Chunk.SIZE] = 0;
+                    }
+                }
+
+                for (int v = 0; v < Chunk.SIZE; v++)
+                {
+                    int u = 0;
+
+                    while (u < Chunk.SIZE)
+                    {
+                        int key = mask[u + v * Chunk.SIZE];
+
+                        if (key == 0)
+                        {
+                            u++;
+                            continue;
+                        }
+
+                        int width = 1;
+
+                        while (u + width < Chunk.SIZE && mask[u + width + v * Chunk.SIZE] == key)
+                            width++;
+
+                        int height = 1;
+
+                        growHeight:
+                        while (v + height < Chunk.SIZE)
+                        {
+                            for (int k = 0; k < width; k++)
+                            {
+                                if (mask[u + k + (v + height) * Chunk.SIZE] != key)
+                                    break growHeight;
+                            }
+
+                            height++;
+                        }
+
+                        for (int dv = 0; dv < height; dv++)
+                            Arrays.fill(mask, u + (v + dv) * Chunk.SIZE, u + width + (v + dv) * Chunk.SIZE, 0);
+
+                        cell[uAxis] = u;
+                        cell[vAxis] = v;
+
+                        addGreedyFace(scratch, (short) ((key & 0xFFFF) - 1), face, cell, uAxis, vAxis, width, height, key >>> 16);
+
+                        u += width;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a quad covering width x height faces. The UVs are written in tile units and wrapped inside
+     * the atlas tile by the shader, so the texture repeats once per block instead of stretching over the quad.
+     */
+    private static void addGreedyFace(@NotNull Scratch scratch, short blockId, int face, int[] cell, int uAxis, int vAxis, int width, int height, int ambientOcclusion)
+    {
+        int[] texture = scratch.getFaceTexture(blockId, face);
+
+        if (texture == null)
+            return;
+
+        int[] position = scratch.position;
+        int start = scratch.data.getVertexCount();
+
+        for (int corner = 0; corner < 4; corner++)
+        {
+            int[] offset = CORNERS[face][corner];
+
+            int du = offset[uAxis];
+            int dv = offset[vAxis];
+
+            position[0] = cell[0] + offset[0];
+            position[1] = cell[1] + offset[1];
+            position[2] = cell[2] + offset[2];
+
+            position[uAxis] = cell[uAxis] + du * width;
+            position[vAxis] = cell[vAxis] + dv * height;
+
+            scratch.data.addVertex(encodeVertex(texture, face, position[0], position[1], position[2], du * width, dv * height, getCornerLevel(ambientOcclusion, corner)));
+        }
+
+        for (int index : getWinding(face, ambientOcclusion))
+            scratch.data.addIndex(start + index);
+    }
+
+    /**
+     * Per-thread buffers reused across chunks, plus the atlas lookups of each block face.
+     */
+    private static class Scratch
+    {
+        private final @NotNull MeshData data = MeshData.create(4096, 6144);
+
+        private final int[] mask = new int[Chunk.SIZE * Chunk.SIZE];
+        private final int[] cell = new int[3];
+        private final int[] position = new int[3];
+
+        private @Nullable TextureAtlas textureAtlas;
+
+        /**
+         * The texture lookups of each block face, indexed by block id * 6 + face; see the FACE_ offsets for the layout.
+         * A null entry hasn't been looked up yet; a zero length entry has no texture in the atlas.
+         */
+        private int[][] faceTextures = new int[0][];
+
+        private void setTextureAtlas(@NotNull TextureAtlas textureAtlas)
+        {
+            if (this.textureAtlas != textureAtlas)
+            {
+                this.textureAtlas = textureAtlas;
+                faceTextures = new int[0][];
+            }
+        }
+
+        private int @Nullable [] getFaceTexture(short blockId, int face)
+        {
+            int index = blockId * NORMALS.length + face;
+
+            if (index >= faceTextures.length)
+                faceTextures = Arrays.copyOf(faceTextures, Math.max(index + 1, faceTextures.length * 2));
+
+            if (faceTextures[index] == null)
+                faceTextures[index] = lookUpFaceTexture(blockId, face);
+
+            return faceTextures[index].length == 0 ? null : faceTextures[index];
+        }
+
+        /**
+         * Looks up the tile and tint of a block face, and where the rotated texture's corners fall in the tile:
+         * the tile coordinates of the face's origin corner and how they change per block along the face's u and v axes.
+         */
+        private int @NotNull [] lookUpFaceTexture(short blockId, int face)
+        {
+            Block block = BlockRegistry.get(blockId);
+
+            if (block == null || textureAtlas == null)
+                return new int[0];
+
+            String name = block.getTextures()[TEXTURE_INDICES[face]];
+
+            Vector2f[] uvs = textureAtlas.getSubTextureCoordinates(name, TEXTURE_ROTATIONS[face]);
+            Vector2f[] tile = textureAtlas.getSubTextureCoordinates(name);
+
+            if (uvs == null || tile == null)
+                return new int[0];
+
+            int[] result = new int[FACE_SIZE];
+
+            float tileMinU = tile[0].x;
+            float tileMinV = tile[0].y;
+            float tileWidth = tile[2].x - tile[0].x;
+            float tileHeight = tile[2].y - tile[0].y;
+
+            result[FACE_TILE] = PackedVertexTable.getTileIndex(tileMinU, tileMinV, tileWidth, tileHeight);
+            result[FACE_TINT] = PackedVertexTable.getTintIndex(block.getColors()[TEXTURE_INDICES[face]]);
+
+            int uAxis = U_AXES[face];
+            int vAxis = V_AXES[face];
+
+            for (int corner = 0; corner < 4; corner++)
+            {
+                int[] offset = CORNERS[face][corner];
+
+                int target;
+
+                if (offset[uAxis] == 0 && offset[vAxis] == 0)
+                    target = FACE_TILE_ORIGIN;
+                else if (offset[uAxis] == 1 && offset[vAxis] == 0)
+                    target = FACE_TILE_U_STEP;
+                else if (offset[uAxis] == 0 && offset[vAxis] == 1)
+                    target = FACE_TILE_V_STEP;
+                else
+                    continue;
+
+                result[target] = Math.round((uvs[corner].x - tileMinU) / tileWidth);
+                result[target + 1] = Math.round((uvs[corner].y - tileMinV) / tileHeight);
+            }
+
+            result[FACE_TILE_U_STEP] -= result[FACE_TILE_ORIGIN];
+            result[FACE_TILE_U_STEP + 1] -= result[FACE_TILE_ORIGIN + 1];
+            result[FACE_TILE_V_STEP] -= result[FACE_TILE_ORIGIN];
+            result[FACE_TILE_V_STEP + 1] -= result[FACE_TILE_ORIGIN + 1];
+
+            return result;
+        }
+    }
+}
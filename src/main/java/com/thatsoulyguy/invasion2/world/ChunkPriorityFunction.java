@@ -0,0 +1,23 @@
+package com.thatsoulyguy.invasion2.world;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Orders the chunk loading, meshing and upload stages. Chunks with lower values are handled first.
+ * <p>
+ * Called from the world's update thread, its workers and the main thread, so implementations must be thread safe.
+ */
+@FunctionalInterface
+public interface ChunkPriorityFunction
+{
+    /**
+     * Gets the priority of a chunk. Whole columns are ranked by the section at the loader's height.
+     *
+     * @param chunkX The x position of the chunk in chunk coordinates
+     * @param chunkY The y position of the chunk in chunk coordinates
+     * @param chunkZ The z position of the chunk in chunk coordinates
+     * @param view The chunk loader's position, view and movement
+     * @return The priority, lower first
+     */
+    double getPriority(int chunkX, int chunkY, int chunkZ, @NotNull ChunkLoadView view);
+}
@@ -0,0 +1,195 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes columns to their region files on a background thread, so saving never waits on compression or disk.
+ * <p>
+ * Columns are handed over as snapshots nobody else modifies. A column saved again before its last snapshot was written replaces
+ * it, so repeated saves coalesce into one write. Each pass compresses everything pending and writes it through
+ * {@link RegionStorage#write(Map)}, one batch per region file. Snapshots stay pending until they are written, so a column
+ * loaded in the meantime is read back from {@link #getPending}. If any column fails to write, another pass is scheduled after
+ * {@link #MIN_RETRY_DELAY_MILLIS}, doubling up to {@link #MAX_RETRY_DELAY_MILLIS} while writes keep failing, so the edits reach disk
+ * even if nothing else is saved. Columns saved while a retry waits are written with it.
+ */
+@CustomConstructor("create")
+public class ChunkSaver
+{
+    /**
+     * The wait before retrying after the first failed write.
+     */
+    public static final long MIN_RETRY_DELAY_MILLIS = 1_000L;
+
+    /**
+     * The longest wait between retries.
+     */
+    public static final long MAX_RETRY_DELAY_MILLIS = 60_000L;
+
+    private final @NotNull ConcurrentMap<Vector2i, Pending> pending = new ConcurrentHashMap<>();
+
+    private final @NotNull AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private @EffectivelyNotNull ScheduledThreadPoolExecutor executor;
+
+    /**
+     * The wait before the next retry, or 0 if the last pass wrote everything. Only touched by the I/O thread.
+     */
+    private long retryDelay = 0;
+
+    private @EffectivelyNotNull RegionStorage regionStorage;
+
+    private ChunkSaver() { }
+
+    /**
+     * Queues a column to be compressed and saved.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @param sections The block storage of each section, bottom up; must not be modified afterwards
+     */
+    public void save(@NotNull Vector2i position, @NotNull PalettedBlockStorage[] sections)
+    {
+        pending.put(new Vector2i(position), new Pending(sections, null));
+        schedule();
+    }
+
+    /**
+     * Queues an already compressed column to be saved.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @param data The column's blocks, from {@link ChunkCompression#compress}
+     */
+    public void save(@NotNull Vector2i position, byte @NotNull [] data)
+    {
+        pending.put(new Vector2i(position), new Pending(null, data));
+        schedule();
+    }
+
+    /**
+     * Gets a copy of a column that is queued but not written yet.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @return The block storage of each section, bottom up, or null if nothing is pending for the column
+     */
+    public @Nullable PalettedBlockStorage[] getPending(@NotNull Vector2i position)
+    {
+        Pending column = pending.get(position);
+
+        if (column == null)
+            return null;
+
+        if (column.data() != null)
+        {
+            try
+            {
+                return ChunkCompression.decompress(column.data());
+            }
+            catch (IOException exception)
+            {
+                System.err.println("Failed to read pending column " + position + ": " + exception.getMessage());
+                return null;
+            }
+        }
+
+        PalettedBlockStorage[] sections = Objects.requireNonNull(column.sections());
+        PalettedBlockStorage[] result = new PalettedBlockStorage[sections.length];
+
+        for (int i = 0; i < sections.length; i++)
+            result[i] = sections[i].copy();
+
+        return result;
+    }
+
+    /**
+     * Writes everything still pending, waiting for it, and closes the region storage.
+     */
+    public void close()
+    {
+        executor.shutdown();
+
+        try
+        {
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS))
+                System.err.println("Timed out waiting for columns to be saved!");
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!pending.isEmpty())
+            writePending();
+
+        regionStorage.close();
+    }
+
+    private void schedule()
+    {
+        if (scheduled.compareAndSet(false, true) && !executor.isShutdown())
+            executor.execute(this::writePending);
+    }
+
+    private void writePending()
+    {
+        scheduled.set(false);
+
+        Map<Vector2i, Pending> batch = new HashMap<>(pending);
+        Map<Vector2i, byte[]> data = new HashMap<>();
+
+        for (Map.Entry<Vector2i, Pending> entry : batch.entrySet())
+        {
+            Pending column = entry.getValue();
+
+            data.put(entry.getKey(), column.data() != null ? column.data() : ChunkCompression.compress(Objects.requireNonNull(column.sections())));
+        }
+
+        Set<Vector2i> written = regionStorage.write(data);
+
+        for (Vector2i position : written)
+            pending.remove(position, batch.get(position));
+
+        if (written.size() == batch.size())
+        {
+            retryDelay = 0;
+            return;
+        }
+
+        retryDelay = retryDelay == 0 ? MIN_RETRY_DELAY_MILLIS : Math.min(retryDelay * 2, MAX_RETRY_DELAY_MILLIS);
+
+        if (scheduled.compareAndSet(false, true) && !executor.isShutdown())
+            executor.schedule(this::writePending, retryDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a saver with its own I/O thread.
+     *
+     * @param regionStorage Where the columns are saved; closed along with the saver
+     * @return The new saver
+     */
+    public static @NotNull ChunkSaver create(@NotNull RegionStorage regionStorage)
+    {
+        ChunkSaver result = new ChunkSaver();
+
+        result.regionStorage = regionStorage;
+        result.executor = new ScheduledThreadPoolExecutor(1);
+        result.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        return result;
+    }
+
+    private record Pending(@Nullable PalettedBlockStorage[] sections, byte @Nullable [] data) { }
+}
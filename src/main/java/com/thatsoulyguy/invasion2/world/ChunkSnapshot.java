@@ -0,0 +1,114 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.block.BlockRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3i;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * A read-only copy of a chunk's blocks padded by one block on every side.
+ * <p>
+ * The padding holds the facing layers (and edges and corners) of the neighboring chunks,
+ * so meshing can cull faces across chunk borders without touching the live neighbors.
+ * Padding for a neighbor that is not loaded is filled with air.
+ */
+@CustomConstructor("create")
+public class ChunkSnapshot
+{
+    public static final int PADDED_SIZE = Chunk.SIZE + 2;
+
+    private final short[] blocks = new short[PADDED_SIZE * PADDED_SIZE * PADDED_SIZE];
+
+    private ChunkSnapshot() { }
+
+    /**
+     * Gets the block id at the given position.
+     *
+     * @param x The x position in chunk space, in the range [-1, {@link Chunk#SIZE}]
+     * @param y The y position in chunk space, in the range [-1, {@link Chunk#SIZE}]
+     * @param z The z position in chunk space, in the range [-1, {@link Chunk#SIZE}]
+     * @return The block id
+     */
+    public short getBlock(int x, int y, int z)
+    {
+        return blocks[toIndex(x, y, z)];
+    }
+
+    public boolean isAir(int x, int y, int z)
+    {
+        return blocks[toIndex(x, y, z)] == BlockRegistry.BLOCK_AIR.getId();
+    }
+
+    private void copyFrom(@NotNull Chunk chunk, int offsetX, int offsetY, int offsetZ)
+    {
+        int minX = offsetX < 0 ? -1 : offsetX * Chunk.SIZE;
+        int minY = offsetY < 0 ? -1 : offsetY * Chunk.SIZE;
+        int minZ = offsetZ < 0 ? -1 : offsetZ * Chunk.SIZE;
+
+        int maxX = offsetX == 0 ? Chunk.SIZE - 1 : minX;
+        int maxY = offsetY == 0 ? Chunk.SIZE - 1 : minY;
+        int maxZ = offsetZ == 0 ? Chunk.SIZE - 1 : minZ;
+
+        chunk.readBlocks(storage ->
+        {
+            for (int z = minZ; z <= maxZ; z++)
+            {
+                for (int y = minY; y <= maxY; y++)
+                {
+                    for (int x = minX; x <= maxX; x++)
+                        blocks[toIndex(x, y, z)] = storage.get(Chunk.toIndex(x, y, z));
+                }
+            }
+        });
+    }
+
+    private static int toIndex(int x, int y, int z)
+    {
+        return (x + 1) + (y + 1) * PADDED_SIZE + (z + 1) * PADDED_SIZE * PADDED_SIZE;
+    }
+
+    /**
+     * Creates a snapshot of a chunk without any neighbors; every padding block is air.
+     *
+     * @param chunk The chunk to copy
+     * @return The new snapshot
+     */
+    public static @NotNull ChunkSnapshot create(@NotNull Chunk chunk)
+    {
+        return create(chunk, _ -> null);
+    }
+
+    /**
+     * Creates a snapshot of a chunk and its neighbors.
+     *
+     * @param chunk The chunk to copy
+     * @param neighbors Looks up the neighbor at a chunk offset (each component in [-1, 1]), or null if it is not loaded
+     * @return The new snapshot
+     */
+    public static @NotNull ChunkSnapshot create(@NotNull Chunk chunk, @NotNull Function<Vector3i, @Nullable Chunk> neighbors)
+    {
+        ChunkSnapshot result = new ChunkSnapshot();
+
+        Arrays.fill(result.blocks, BlockRegistry.BLOCK_AIR.getId());
+
+        for (int offsetZ = -1; offsetZ <= 1; offsetZ++)
+        {
+            for (int offsetY = -1; offsetY <= 1; offsetY++)
+            {
+                for (int offsetX = -1; offsetX <= 1; offsetX++)
+                {
+                    Chunk source = (offsetX == 0 && offsetY == 0 && offsetZ == 0) ? chunk : neighbors.apply(new Vector3i(offsetX, offsetY, offsetZ));
+
+                    if (source != null)
+                        result.copyFrom(source, offsetX, offsetY, offsetZ);
+                }
+            }
+        }
+
+        return result;
+    }
+}
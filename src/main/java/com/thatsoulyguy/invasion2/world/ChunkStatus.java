@@ -0,0 +1,56 @@
+package com.thatsoulyguy.invasion2.world;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The stages of the {@link ChunkGenerationPipeline}, in order. A column at a stage has run every stage up to and including it.
+ * Each {@link TerrainGenerator} runs in one of them; meshing happens once the column is {@link #FULL}.
+ */
+public enum ChunkStatus
+{
+    /**
+     * Nothing has been generated yet.
+     */
+    EMPTY,
+
+    /**
+     * The terrain shape and its surface blocks, which both come from the same heightmap.
+     */
+    NOISE,
+
+    /**
+     * Caves and anything else that removes blocks from the terrain.
+     */
+    CARVERS,
+
+    /**
+     * Trees and other features, which may reach into the neighboring columns; so before a column's features are placed,
+     * every neighbor must have reached {@link #CARVERS}.
+     */
+    FEATURES,
+
+    /**
+     * The blocks are final and the column's sections have been created.
+     */
+    FULL;
+
+    /**
+     * Gets the stage before this one.
+     *
+     * @return The previous stage, or null for {@link #EMPTY}
+     */
+    public @Nullable ChunkStatus getPrevious()
+    {
+        return ordinal() == 0 ? null : values()[ordinal() - 1];
+    }
+
+    /**
+     * Gets the stage the 8 neighboring columns must have reached before a column can run this one.
+     *
+     * @return The stage, or null if this stage only looks at its own column
+     */
+    public @Nullable ChunkStatus getNeighborRequirement()
+    {
+        return this == FEATURES ? CARVERS : null;
+    }
+}
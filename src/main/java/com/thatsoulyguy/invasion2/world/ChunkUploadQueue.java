@@ -0,0 +1,128 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3i;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A bounded hand-off between the meshing workers and the main thread.
+ * <p>
+ * Workers block in {@link #put(ChunkMeshUpload)} while the queue is full, so meshing can't run further ahead of
+ * uploading than the capacity allows. The main thread takes the upload with the highest priority first.
+ */
+@CustomConstructor("create")
+public class ChunkUploadQueue
+{
+    private final @NotNull List<ChunkMeshUpload> uploads = new ArrayList<>();
+
+    private @EffectivelyNotNull Semaphore capacity;
+
+    private ChunkUploadQueue() { }
+
+    /**
+     * Adds an upload, waiting for room if the queue is full. A queued upload for the same chunk is replaced instead.
+     *
+     * @param upload The upload to add
+     * @throws InterruptedException If the thread is interrupted while waiting for room
+     */
+    public void put(@NotNull ChunkMeshUpload upload) throws InterruptedException
+    {
+        if (replace(upload))
+            return;
+
+        capacity.acquire();
+
+        synchronized (uploads)
+        {
+            uploads.add(upload);
+        }
+    }
+
+    /**
+     * Removes and returns the upload whose chunk ranks first, or null if the queue is empty.
+     *
+     * @param priority Ranks the chunks, lower first
+     * @param view The chunk loader's view to rank against
+     */
+    public @Nullable ChunkMeshUpload pollFirst(@NotNull ChunkPriorityFunction priority, @NotNull ChunkLoadView view)
+    {
+        ChunkMeshUpload result;
+
+        synchronized (uploads)
+        {
+            if (uploads.isEmpty())
+                return null;
+
+            int first = 0;
+            double firstPriority = Double.MAX_VALUE;
+
+            for (int i = 0; i < uploads.size(); i++)
+            {
+                Vector3i position = uploads.get(i).chunk().getPosition();
+
+                double chunkPriority = priority.getPriority(position.x, position.y, position.z, view);
+
+                if (chunkPriority < firstPriority)
+                {
+                    first = i;
+                    firstPriority = chunkPriority;
+                }
+            }
+
+            result = uploads.get(first);
+
+            uploads.set(first, uploads.getLast());
+            uploads.removeLast();
+        }
+
+        capacity.release();
+
+        return result;
+    }
+
+    public int size()
+    {
+        synchronized (uploads)
+        {
+            return uploads.size();
+        }
+    }
+
+    private boolean replace(@NotNull ChunkMeshUpload upload)
+    {
+        synchronized (uploads)
+        {
+            for (int i = 0; i < uploads.size(); i++)
+            {
+                if (uploads.get(i).chunk() == upload.chunk())
+                {
+                    uploads.set(i, upload);
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacity The most uploads the queue holds before {@link #put(ChunkMeshUpload)} blocks
+     * @return The new queue
+     */
+    public static @NotNull ChunkUploadQueue create(int capacity)
+    {
+        ChunkUploadQueue result = new ChunkUploadQueue();
+
+        result.capacity = new Semaphore(capacity);
+
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package com.thatsoulyguy.invasion2.world;
+
+/**
+ * The blocks a {@link TerrainGenerator} can change, so the sections it can't change anything in are skipped.
+ * <p>
+ * Skipping is per whole 16 block section only. A section the mask lets through is generated in full, so a generator
+ * still sees the air above the surface inside the section the surface crosses and has to leave it alone itself.
+ */
+public enum GenerationMask
+{
+    /**
+     * Any block; every section is generated.
+     */
+    ALL,
+
+    /**
+     * Only solid blocks, such as a carver turning them into air. Sections above the column's highest surface are skipped,
+     * so the earlier stages must not place solid blocks above the heightmap; without a heightmap, sections that are all air are.
+     */
+    SOLID
+}
@@ -0,0 +1,132 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
+import com.thatsoulyguy.invasion2.block.BlockRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
+
+/**
+ * What a {@link TerrainGenerator} sees while it runs a stage on a column: the column's blocks and, for stages with a
+ * {@link ChunkStatus#getNeighborRequirement() neighbor requirement}, the blocks of the 8 columns around it.
+ * Blocks are addressed in world space. Only the center column can be written, so generators running on neighboring
+ * columns at the same time never write to the same blocks.
+ */
+@CustomConstructor("create")
+public class GenerationRegion
+{
+    private final short @NotNull [][][][][] blocks = new short[9][][][][];
+
+    private @EffectivelyNotNull ChunkColumn column;
+
+    private int x;
+    private int z;
+
+    private GenerationRegion() { }
+
+    /**
+     * Gets the block at a world space position.
+     *
+     * @return The block id, or air if the position is above or below the world or outside the region
+     */
+    public short getBlock(int worldX, int worldY, int worldZ)
+    {
+        short[][][][] columnBlocks = getColumnBlocks(worldX, worldZ);
+
+        if (columnBlocks == null || worldY < 0 || worldY >= World.WORLD_HEIGHT)
+            return BlockRegistry.BLOCK_AIR.getId();
+
+        return columnBlocks[worldY / Chunk.SIZE][Math.floorMod(worldX, Chunk.SIZE)][worldY % Chunk.SIZE][Math.floorMod(worldZ, Chunk.SIZE)];
+    }
+
+    /**
+     * Sets the block at a world space position, if it's in the center column.
+     *
+     * @return Whether the block was set
+     */
+    public boolean setBlock(int worldX, int worldY, int worldZ, short type)
+    {
+        if (Math.floorDiv(worldX, Chunk.SIZE) != x || Math.floorDiv(worldZ, Chunk.SIZE) != z || worldY < 0 || worldY >= World.WORLD_HEIGHT)
+            return false;
+
+        blocks[4][worldY / Chunk.SIZE][Math.floorMod(worldX, Chunk.SIZE)][worldY % Chunk.SIZE][Math.floorMod(worldZ, Chunk.SIZE)] = type;
+
+        return true;
+    }
+
+    /**
+     * Gets the blocks of a section of the center column, indexed [x][y][z] in chunk space.
+     */
+    public short @NotNull [][][] getSectionBlocks(int y)
+    {
+        return blocks[4][y];
+    }
+
+    /**
+     * Gets the column being generated.
+     */
+    public @NotNull ChunkColumn getColumn()
+    {
+        return column;
+    }
+
+    /**
+     * Gets the x and z position of the center column in chunk coordinates.
+     */
+    public @NotNull Vector2i getPosition()
+    {
+        return new Vector2i(x, z);
+    }
+
+    private short @Nullable [][][][] getColumnBlocks(int worldX, int worldZ)
+    {
+        int offsetX = Math.floorDiv(worldX, Chunk.SIZE) - x;
+        int offsetZ = Math.floorDiv(worldZ, Chunk.SIZE) - z;
+
+        if (Math.abs(offsetX) > 1 || Math.abs(offsetZ) > 1)
+            return null;
+
+        return blocks[getIndex(offsetX, offsetZ)];
+    }
+
+    private static int getIndex(int offsetX, int offsetZ)
+    {
+        return (offsetX + 1) + (offsetZ + 1) * 3;
+    }
+
+    /**
+     * Creates a region around a column.
+     *
+     * @param column The column being generated
+     * @param neighbors The columns around it, or null for a region of the column alone
+     * @return The new region
+     */
+    public static @NotNull GenerationRegion create(@NotNull ChunkColumn column, @Nullable Iterable<ChunkColumn> neighbors)
+    {
+        GenerationRegion result = new GenerationRegion();
+
+        Vector2i position = column.getPosition();
+
+        result.column = column;
+        result.x = position.x;
+        result.z = position.y;
+        result.blocks[4] = column.getGeneratingBlocks();
+
+        if (neighbors != null)
+        {
+            for (ChunkColumn neighbor : neighbors)
+            {
+                Vector2i neighborPosition = neighbor.getPosition();
+
+                int offsetX = neighborPosition.x - result.x;
+                int offsetZ = neighborPosition.y - result.z;
+
+                if (Math.abs(offsetX) <= 1 && Math.abs(offsetZ) <= 1)
+                    result.blocks[getIndex(offsetX, offsetZ)] = neighbor.getGeneratingBlocks();
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,152 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the terrain heightmaps of the columns around the loaded area, so the height noise is sampled once per column
+ * instead of once per section, and so anything else that needs the terrain height (trees, spawning, lighting) can look it up
+ * without sampling the noise again. Heightmaps are indexed like {@link ChunkColumn#getHeightmap}.
+ * <p>
+ * Safe to use from any thread. Holds at most its capacity, dropping the least recently used heightmaps beyond that, and
+ * is expected to be pruned with {@link #discard} as columns unload. Every heightmap must come from the same height function
+ * and seed, since they're keyed by column alone.
+ */
+@CustomConstructor("create")
+public class HeightmapCache
+{
+    private final @NotNull LinkedHashMap<Vector2i, int[]> heightmaps = new LinkedHashMap<>(16, 0.75f, true);
+
+    private int capacity;
+
+    private HeightmapCache() { }
+
+    /**
+     * Gets the heightmap of a column, computing it if it isn't cached. Two threads asking for the same column at
+     * once may both compute it; they get the same values either way.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @param heightmapFunction Computes the heightmap of a column from its position, such as with {@link #compute}
+     * @return The heightmap, shared with every caller, so it must not be modified
+     */
+    public int @NotNull [] get(@NotNull Vector2i position, @NotNull Function<Vector2i, int[]> heightmapFunction)
+    {
+        int[] result = getIfPresent(position);
+
+        if (result != null)
+            return result;
+
+        result = heightmapFunction.apply(position);
+
+        synchronized (this)
+        {
+            int[] previous = heightmaps.putIfAbsent(new Vector2i(position), result);
+
+            if (previous != null)
+                return previous;
+
+            trim();
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the heightmap of a column if it's cached.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @return The heightmap, which must not be modified, or null if it isn't cached
+     */
+    public synchronized int @Nullable [] getIfPresent(@NotNull Vector2i position)
+    {
+        return heightmaps.get(position);
+    }
+
+    /**
+     * Gets the terrain height at a world space x and z, if its column's heightmap is cached.
+     *
+     * @return The height, or {@link Integer#MIN_VALUE} if it isn't cached
+     */
+    public int getHeight(int worldX, int worldZ)
+    {
+        int[] heightmap = getIfPresent(new Vector2i(Math.floorDiv(worldX, Chunk.SIZE), Math.floorDiv(worldZ, Chunk.SIZE)));
+
+        if (heightmap == null)
+            return Integer.MIN_VALUE;
+
+        return heightmap[Math.floorMod(worldX, Chunk.SIZE) + Math.floorMod(worldZ, Chunk.SIZE) * Chunk.SIZE];
+    }
+
+    /**
+     * Drops the heightmaps of the columns that are no longer wanted.
+     *
+     * @param wanted Tells whether a column's heightmap should be kept
+     */
+    public synchronized void discard(@NotNull Predicate<Vector2i> wanted)
+    {
+        heightmaps.keySet().removeIf(wanted.negate());
+    }
+
+    /**
+     * Gets the number of cached heightmaps.
+     */
+    public synchronized int size()
+    {
+        return heightmaps.size();
+    }
+
+    private void trim()
+    {
+        Iterator<Map.Entry<Vector2i, int[]>> iterator = heightmaps.entrySet().iterator();
+
+        while (heightmaps.size() > capacity && iterator.hasNext())
+        {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Computes the heightmap of a column one block column at a time, without caching it.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @param heightFunction Computes the height at a world space x and z
+     * @return The heightmap, indexed by x + z * {@link Chunk#SIZE} with x and z in chunk space
+     */
+    public static int @NotNull [] compute(@NotNull Vector2i position, @NotNull IntBinaryOperator heightFunction)
+    {
+        int[] result = new int[Chunk.SIZE * Chunk.SIZE];
+
+        for (int localZ = 0; localZ < Chunk.SIZE; localZ++)
+        {
+            for (int localX = 0; localX < Chunk.SIZE; localX++)
+                result[localX + localZ * Chunk.SIZE] = heightFunction.applyAsInt(position.x * Chunk.SIZE + localX, position.y * Chunk.SIZE + localZ);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity The most heightmaps to keep
+     * @return The new cache
+     */
+    public static @NotNull HeightmapCache create(int capacity)
+    {
+        HeightmapCache result = new HeightmapCache();
+
+        result.capacity = capacity;
+
+        return result;
+    }
+}
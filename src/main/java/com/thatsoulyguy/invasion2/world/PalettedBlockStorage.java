@@ -0,0 +1,307 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Block storage for a single chunk section.
+ * <p>
+ * Blocks are stored as indices into a per-section palette of block ids, packed into a {@code long[]}
+ * whose entry width grows (1, 2, 4, 8, 16 bits) as the palette grows. A section holding a single
+ * block type (all air, all stone) keeps no index array at all.
+ * <p>
+ * Not thread safe. A write that grows or compacts the palette repacks the storage in several steps, so a storage shared
+ * between threads must be read under the same lock it's written under.
+ */
+@CustomConstructor("create")
+public class PalettedBlockStorage implements Serializable
+{
+    public static final int VOLUME = Chunk.SIZE * Chunk.SIZE * Chunk.SIZE;
+
+    private short[] palette = new short[1];
+    private int paletteSize = 1;
+
+    /**
+     * The width of a packed entry in bits. Zero means the section is a single value and {@link #data} is null.
+     */
+    private int bitsPerEntry = 0;
+
+    private long[] data = null;
+
+    private PalettedBlockStorage() { }
+
+    /**
+     * Gets the block id stored at the given index.
+     *
+     * @param index The index of the block, in the range [0, {@link #VOLUME})
+     * @return The block id
+     */
+    public short get(int index)
+    {
+        if (bitsPerEntry == 0)
+            return palette[0];
+
+        return palette[readEntry(data, bitsPerEntry, index)];
+    }
+
+    /**
+     * Sets the block id stored at the given index, growing the palette if needed.
+     *
+     * @param index The index of the block, in the range [0, {@link #VOLUME})
+     * @param value The block id
+     */
+    public void set(int index, short value)
+    {
+        int paletteIndex = indexOf(value);
+
+        if (paletteIndex == -1)
+            paletteIndex = addToPalette(value);
+
+        if (bitsPerEntry == 0)
+        {
+            if (paletteIndex == 0)
+                return;
+
+            resize(1);
+        }
+        else if (paletteIndex >= (1 << bitsPerEntry))
+        {
+            resize(bitsPerEntry * 2);
+            paletteIndex = indexOf(value);
+        }
+
+        writeEntry(data, bitsPerEntry, index, paletteIndex);
+    }
+
+    /**
+     * Returns true if every block in the section has the same id.
+     * This only reports the single-value fast path; a packed section that happens to be uniform returns false.
+     */
+    public boolean isSingleValue()
+    {
+        return bitsPerEntry == 0;
+    }
+
+    /**
+     * Gets the id of every block in a single-value section, or of the first palette entry otherwise.
+     */
+    public short getSingleValue()
+    {
+        return palette[0];
+    }
+
+    /**
+     * Estimates the memory the storage takes up, in bytes.
+     */
+    public long getByteSize()
+    {
+        return 32L + palette.length * 2L + (data != null ? data.length * 8L : 0);
+    }
+
+    /**
+     * Creates an independent copy of this storage.
+     */
+    public @NotNull PalettedBlockStorage copy()
+    {
+        PalettedBlockStorage result = new PalettedBlockStorage();
+
+        result.palette = palette.clone();
+        result.paletteSize = paletteSize;
+        result.bitsPerEntry = bitsPerEntry;
+        result.data = data != null ? data.clone() : null;
+
+        return result;
+    }
+
+    /**
+     * Writes the palette and packed indices, in the form {@link #read(DataInput)} reads.
+     */
+    public void write(@NotNull DataOutput output) throws IOException
+    {
+        output.writeByte(bitsPerEntry);
+        output.writeShort(paletteSize);
+
+        for (int i = 0; i < paletteSize; i++)
+            output.writeShort(palette[i]);
+
+        if (bitsPerEntry == 0)
+            return;
+
+        for (long entry : data)
+            output.writeLong(entry);
+    }
+
+    private int indexOf(short value)
+    {
+        for (int i = 0; i < paletteSize; i++)
+        {
+            if (palette[i] == value)
+                return i;
+        }
+
+        return -1;
+    }
+
+    private int addToPalette(short value)
+    {
+        if (paletteSize == palette.length)
+            palette = Arrays.copyOf(palette, palette.length * 2);
+
+        palette[paletteSize] = value;
+
+        return paletteSize++;
+    }
+
+    /**
+     * Repacks the index array at a wider entry size, first dropping palette entries that are no longer referenced.
+     * If compacting frees enough room, the current width is kept.
+     */
+    private void resize(int newBitsPerEntry)
+    {
+        if (bitsPerEntry != 0 && compact())
+            return;
+
+        long[] newData = new long[VOLUME / (Long.SIZE / newBitsPerEntry)];
+
+        if (bitsPerEntry != 0)
+        {
+            for (int i = 0; i < VOLUME; i++)
+                writeEntry(newData, newBitsPerEntry, i, readEntry(data, bitsPerEntry, i));
+        }
+
+        data = newData;
+        bitsPerEntry = newBitsPerEntry;
+    }
+
+    /**
+     * Removes palette entries that no block references, keeping the most recently added entry.
+     *
+     * @return True if the palette now fits the current entry width
+     */
+    private boolean compact()
+    {
+        int[] usage = new int[paletteSize];
+
+        for (int i = 0; i < VOLUME; i++)
+            usage[readEntry(data, bitsPerEntry, i)]++;
+
+        usage[paletteSize - 1]++;
+
+        int[] remap = new int[paletteSize];
+        short[] newPalette = new short[palette.length];
+        int newPaletteSize = 0;
+
+        for (int i = 0; i < paletteSize; i++)
+        {
+            if (usage[i] == 0)
+                continue;
+
+            remap[i] = newPaletteSize;
+            newPalette[newPaletteSize++] = palette[i];
+        }
+
+        if (newPaletteSize > (1 << bitsPerEntry))
+            return false;
+
+        for (int i = 0; i < VOLUME; i++)
+            writeEntry(data, bitsPerEntry, i, remap[readEntry(data, bitsPerEntry, i)]);
+
+        palette = newPalette;
+        paletteSize = newPaletteSize;
+
+        return true;
+    }
+
+    private static int readEntry(long[] data, int bitsPerEntry, int index)
+    {
+        int entriesPerLong = Long.SIZE / bitsPerEntry;
+        int shift = (index % entriesPerLong) * bitsPerEntry;
+
+        return (int) ((data[index / entriesPerLong] >>> shift) & ((1L << bitsPerEntry) - 1));
+    }
+
+    private static void writeEntry(long[] data, int bitsPerEntry, int index, int value)
+    {
+        int entriesPerLong = Long.SIZE / bitsPerEntry;
+        int shift = (index % entriesPerLong) * bitsPerEntry;
+        long mask = ((1L << bitsPerEntry) - 1) << shift;
+
+        int slot = index / entriesPerLong;
+
+        data[slot] = (data[slot] & ~mask) | (((long) value << shift) & mask);
+    }
+
+    /**
+     * Creates a storage where every block has the given id.
+     *
+     * @param value The block id to fill the section with
+     * @return The new storage
+     */
+    public static @NotNull PalettedBlockStorage create(short value)
+    {
+        PalettedBlockStorage result = new PalettedBlockStorage();
+
+        result.palette[0] = value;
+
+        return result;
+    }
+
+    /**
+     * Reads a storage written by {@link #write(DataOutput)}.
+     *
+     * @throws IOException If reading fails or the data is malformed
+     */
+    public static @NotNull PalettedBlockStorage read(@NotNull DataInput input) throws IOException
+    {
+        int bitsPerEntry = input.readUnsignedByte();
+        int paletteSize = input.readUnsignedShort();
+
+        if (Integer.bitCount(bitsPerEntry) > 1 || bitsPerEntry > 16 || paletteSize == 0 || paletteSize > (1 << Math.max(bitsPerEntry, 1)) + 1)
+            throw new IOException("Malformed block storage: " + bitsPerEntry + " bits per entry, palette size " + paletteSize + "!");
+
+        PalettedBlockStorage result = new PalettedBlockStorage();
+
+        result.palette = new short[Math.max(1, Integer.highestOneBit(paletteSize - 1) << 1)];
+        result.paletteSize = paletteSize;
+
+        for (int i = 0; i < paletteSize; i++)
+            result.palette[i] = input.readShort();
+
+        result.bitsPerEntry = bitsPerEntry;
+
+        if (bitsPerEntry == 0)
+            return result;
+
+        result.data = new long[VOLUME / (Long.SIZE / bitsPerEntry)];
+
+        for (int i = 0; i < result.data.length; i++)
+            result.data[i] = input.readLong();
+
+        return result;
+    }
+
+    /**
+     * Creates a storage from a flat array of block ids.
+     *
+     * @param values The block ids, indexed the same way as {@link #get(int)}; must have {@link #VOLUME} entries
+     * @return The new storage
+     */
+    public static @NotNull PalettedBlockStorage create(short[] values)
+    {
+        if (values.length != VOLUME)
+            throw new IllegalArgumentException("Expected " + VOLUME + " block values, got " + values.length + "!");
+
+        PalettedBlockStorage result = create(values[0]);
+
+        for (int i = 1; i < VOLUME; i++)
+            result.set(i, values[i]);
+
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.Static;
+
+/**
+ * Random numbers that depend only on a world seed, a block position and a salt, with no state and no allocation.
+ * Feature generators use it so the same seed places the same features no matter which thread generates a column or in what
+ * order columns are generated. Each kind of feature passes its own salt, so their choices don't line up.
+ * <p>
+ * Annotates: {@code @Static}
+ */
+@Static
+public class PositionalRandom
+{
+    private static final long MULTIPLIER_X = 0x9E3779B97F4A7C15L;
+    private static final long MULTIPLIER_Y = 0xD1B54A32D192ED03L;
+    private static final long MULTIPLIER_Z = 0xC2B2AE3D27D4EB4FL;
+    private static final long MULTIPLIER_SALT = 0xD6E8FEB86659FD93L;
+
+    private PositionalRandom() { }
+
+    /**
+     * Hashes a world x and z.
+     *
+     * @param seed The world seed
+     * @param salt Tells apart the different uses at the same position
+     * @return 64 well-mixed bits
+     */
+    public static long hash(long seed, int x, int z, long salt)
+    {
+        return mix(seed ^ (salt * MULTIPLIER_SALT) ^ (x * MULTIPLIER_X) ^ (z * MULTIPLIER_Z));
+    }
+
+    /**
+     * Hashes a world x, y and z.
+     *
+     * @param seed The world seed
+     * @param salt Tells apart the different uses at the same position
+     * @return 64 well-mixed bits
+     */
+    public static long hash(long seed, int x, int y, int z, long salt)
+    {
+        return mix(seed ^ (salt * MULTIPLIER_SALT) ^ (x * MULTIPLIER_X) ^ (y * MULTIPLIER_Y) ^ (z * MULTIPLIER_Z));
+    }
+
+    /**
+     * Gets a number in [0, bound) for a world x and z.
+     */
+    public static int nextInt(long seed, int x, int z, long salt, int bound)
+    {
+        return (int) Math.floorMod(hash(seed, x, z, salt), (long) bound);
+    }
+
+    /**
+     * Gets a number in [0, 1) for a world x and z.
+     */
+    public static float nextFloat(long seed, int x, int z, long salt)
+    {
+        return (hash(seed, x, z, salt) >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * Checks a one in {@code chance} chance for a world x and z.
+     */
+    public static boolean oneIn(long seed, int x, int z, long salt, int chance)
+    {
+        return nextInt(seed, x, z, salt, chance) == 0;
+    }
+
+    /**
+     * The 64 bit finalizer of MurmurHash3.
+     */
+    private static long mix(long hash)
+    {
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,245 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A file holding the compressed blocks of {@link #SIZE} x {@link #SIZE} columns.
+ * <p>
+ * The file is split into {@link #SECTOR_BYTES} byte sectors. The first sector is the header: one int per column, holding the
+ * first sector of the column's payload in the upper 24 bits and its length in sectors in the lower 8, or 0 if the column
+ * hasn't been saved. A payload is its length in bytes (an int, counting the compression byte), a compression byte, and the
+ * data. Rewritten columns reuse their sectors if they still fit and otherwise move to the first free run, growing the file
+ * if there is none. Reads go through a read-only mapping of the file.
+ */
+@CustomConstructor("create")
+public class RegionFile
+{
+    /**
+     * The width and depth of a region, in columns.
+     */
+    public static final int SIZE = 32;
+
+    public static final int SECTOR_BYTES = 4096;
+
+    /**
+     * The only compression in use: the deflated format of {@link ChunkCompression}.
+     */
+    public static final byte COMPRESSION_DEFLATE = 1;
+
+    private static final int COLUMNS = SIZE * SIZE;
+    private static final int PAYLOAD_HEADER_BYTES = Integer.BYTES + 1;
+    private static final int MAX_SECTORS_PER_COLUMN = 255;
+
+    private final int @NotNull [] locations = new int[COLUMNS];
+
+    private final @NotNull BitSet usedSectors = new BitSet();
+
+    private @EffectivelyNotNull Path path;
+
+    private @EffectivelyNotNull FileChannel channel;
+
+    private @Nullable MappedByteBuffer mapped;
+
+    private RegionFile() { }
+
+    /**
+     * Reads a column's payload.
+     *
+     * @param localX The x position of the column within the region, 0 to {@link #SIZE} - 1
+     * @param localZ The z position of the column within the region, 0 to {@link #SIZE} - 1
+     * @return The compressed data, or null if the column hasn't been saved
+     * @throws IOException If reading fails or the payload is malformed
+     */
+    public synchronized byte @Nullable [] read(int localX, int localZ) throws IOException
+    {
+        int location = locations[getIndex(localX, localZ)];
+
+        if (location == 0)
+            return null;
+
+        long start = (long) (location >>> 8) * SECTOR_BYTES;
+        int capacity = (location & 0xFF) * SECTOR_BYTES;
+
+        MappedByteBuffer buffer = map(start + capacity);
+
+        int length = buffer.getInt((int) start);
+
+        if (length <= 1 || length > capacity - Integer.BYTES)
+            throw new IOException("Malformed payload length " + length + " for column (" + localX + ", " + localZ + ") in " + path + "!");
+
+        byte compression = buffer.get((int) start + Integer.BYTES);
+
+        if (compression != COMPRESSION_DEFLATE)
+            throw new IOException("Unknown compression " + compression + " for column (" + localX + ", " + localZ + ") in " + path + "!");
+
+        byte[] result = new byte[length - 1];
+
+        buffer.get((int) start + PAYLOAD_HEADER_BYTES, result);
+
+        return result;
+    }
+
+    /**
+     * Writes a column's payload, replacing any earlier one.
+     *
+     * @param localX The x position of the column within the region, 0 to {@link #SIZE} - 1
+     * @param localZ The z position of the column within the region, 0 to {@link #SIZE} - 1
+     * @param data The data from {@link ChunkCompression#compress}
+     * @throws IOException If writing fails or the data is too large
+     */
+    public synchronized void write(int localX, int localZ, byte @NotNull [] data) throws IOException
+    {
+        int sectorCount = (data.length + PAYLOAD_HEADER_BYTES + SECTOR_BYTES - 1) / SECTOR_BYTES;
+
+        if (sectorCount > MAX_SECTORS_PER_COLUMN)
+            throw new IOException("Column (" + localX + ", " + localZ + ") is too large for a region file: " + data.length + " bytes!");
+
+        int index = getIndex(localX, localZ);
+        int location = locations[index];
+
+        if (location != 0)
+            usedSectors.clear(location >>> 8, (location >>> 8) + (location & 0xFF));
+
+        int firstSector = findFreeSectors(sectorCount);
+
+        ByteBuffer payload = ByteBuffer.allocate(sectorCount * SECTOR_BYTES);
+
+        payload.putInt(data.length + 1).put(COMPRESSION_DEFLATE).put(data).position(0);
+
+        writeFully(payload, (long) firstSector * SECTOR_BYTES);
+
+        usedSectors.set(firstSector, firstSector + sectorCount);
+
+        locations[index] = firstSector << 8 | sectorCount;
+
+        writeFully(ByteBuffer.allocate(Integer.BYTES).putInt(0, locations[index]), (long) index * Integer.BYTES);
+    }
+
+    /**
+     * Forces written data to disk.
+     */
+    public synchronized void flush() throws IOException
+    {
+        channel.force(false);
+    }
+
+    /**
+     * Forces written data to disk and closes the file.
+     */
+    public synchronized void close() throws IOException
+    {
+        mapped = null;
+
+        channel.force(true);
+        channel.close();
+    }
+
+    private int findFreeSectors(int count)
+    {
+        int start = usedSectors.nextClearBit(1);
+
+        while (true)
+        {
+            int end = usedSectors.nextSetBit(start);
+
+            if (end == -1 || end - start >= count)
+                return start;
+
+            start = usedSectors.nextClearBit(end);
+        }
+    }
+
+    private @NotNull MappedByteBuffer map(long end) throws IOException
+    {
+        if (mapped == null || mapped.capacity() < end)
+        {
+            long size = channel.size();
+
+            if (size < end)
+                throw new IOException("Payload at " + end + " runs past the end of " + path + "!");
+
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        return mapped;
+    }
+
+    private void writeFully(@NotNull ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+            position += channel.write(buffer, position);
+    }
+
+    private static int getIndex(int localX, int localZ)
+    {
+        if (localX < 0 || localX >= SIZE || localZ < 0 || localZ >= SIZE)
+            throw new IllegalArgumentException("Column (" + localX + ", " + localZ + ") is outside the region!");
+
+        return localX + localZ * SIZE;
+    }
+
+    /**
+     * Opens a region file, creating it with an empty header if it doesn't exist.
+     *
+     * @param path The path of the file
+     * @return The opened file
+     * @throws IOException If the file can't be opened or its header is malformed
+     */
+    public static @NotNull RegionFile create(@NotNull Path path) throws IOException
+    {
+        RegionFile result = new RegionFile();
+
+        result.path = path;
+        result.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try
+        {
+            if (result.channel.size() < SECTOR_BYTES)
+                result.writeFully(ByteBuffer.allocate(SECTOR_BYTES), 0);
+
+            result.usedSectors.set(0);
+
+            long sectors = result.channel.size() / SECTOR_BYTES;
+
+            ByteBuffer header = result.channel.map(FileChannel.MapMode.READ_ONLY, 0, SECTOR_BYTES);
+
+            for (int i = 0; i < COLUMNS; i++)
+            {
+                int location = header.getInt(i * Integer.BYTES);
+
+                if (location == 0)
+                    continue;
+
+                int firstSector = location >>> 8;
+                int sectorCount = location & 0xFF;
+
+                if (firstSector == 0 || sectorCount == 0 || firstSector + sectorCount > sectors)
+                {
+                    System.err.println("Dropping column with a broken location in region file " + path + "!");
+                    continue;
+                }
+
+                result.locations[i] = location;
+                result.usedSectors.set(firstSector, firstSector + sectorCount);
+            }
+        }
+        catch (IOException exception)
+        {
+            result.channel.close();
+            throw exception;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,178 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Saves and loads the blocks of columns through the {@link RegionFile}s in a directory, keeping the most recently used ones open.
+ * File access is serialized; decompressing what was read is not.
+ */
+@CustomConstructor("create")
+public class RegionStorage
+{
+    public static final int MAX_OPEN_REGIONS = 16;
+
+    private final @NotNull LinkedHashMap<Vector2i, RegionFile> openRegions = new LinkedHashMap<>(16, 0.75f, true);
+
+    private @EffectivelyNotNull Path directory;
+
+    private RegionStorage() { }
+
+    /**
+     * Loads a saved column.
+     *
+     * @param columnPosition The x and z position of the column in chunk coordinates
+     * @return The block storage of each section, bottom up, or null if the column has never been saved or can't be read
+     */
+    public @Nullable PalettedBlockStorage[] read(@NotNull Vector2i columnPosition)
+    {
+        try
+        {
+            byte[] data;
+
+            synchronized (this)
+            {
+                RegionFile region = getRegion(getRegionPosition(columnPosition), false);
+
+                if (region == null)
+                    return null;
+
+                data = region.read(Math.floorMod(columnPosition.x, RegionFile.SIZE), Math.floorMod(columnPosition.y, RegionFile.SIZE));
+            }
+
+            return data != null ? ChunkCompression.decompress(data) : null;
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Failed to load column " + columnPosition + ", it will be generated again: " + exception.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves a batch of columns. The columns of each region file are written together and the file is forced to disk once;
+     * other threads can read between region files.
+     *
+     * @param columns The x and z positions of the columns in chunk coordinates, and their blocks from {@link ChunkCompression#compress}
+     * @return The positions of the columns that were saved
+     */
+    public @NotNull Set<Vector2i> write(@NotNull Map<Vector2i, byte[]> columns)
+    {
+        Map<Vector2i, List<Vector2i>> regions = new HashMap<>();
+
+        for (Vector2i columnPosition : columns.keySet())
+            regions.computeIfAbsent(getRegionPosition(columnPosition), key -> new ArrayList<>()).add(columnPosition);
+
+        Set<Vector2i> result = new HashSet<>();
+
+        for (Map.Entry<Vector2i, List<Vector2i>> entry : regions.entrySet())
+        {
+            synchronized (this)
+            {
+                try
+                {
+                    RegionFile region = Objects.requireNonNull(getRegion(entry.getKey(), true));
+
+                    for (Vector2i columnPosition : entry.getValue())
+                    {
+                        try
+                        {
+                            region.write(Math.floorMod(columnPosition.x, RegionFile.SIZE), Math.floorMod(columnPosition.y, RegionFile.SIZE), columns.get(columnPosition));
+                            result.add(columnPosition);
+                        }
+                        catch (IOException exception)
+                        {
+                            System.err.println("Failed to save column " + columnPosition + ": " + exception.getMessage());
+                        }
+                    }
+
+                    region.flush();
+                }
+                catch (IOException exception)
+                {
+                    System.err.println("Failed to save region " + entry.getKey() + ": " + exception.getMessage());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Closes every open region file.
+     */
+    public synchronized void close()
+    {
+        openRegions.values().forEach(RegionStorage::closeRegion);
+        openRegions.clear();
+    }
+
+    private static @NotNull Vector2i getRegionPosition(@NotNull Vector2i columnPosition)
+    {
+        return new Vector2i(Math.floorDiv(columnPosition.x, RegionFile.SIZE), Math.floorDiv(columnPosition.y, RegionFile.SIZE));
+    }
+
+    private @Nullable RegionFile getRegion(@NotNull Vector2i regionPosition, boolean create) throws IOException
+    {
+        RegionFile region = openRegions.get(regionPosition);
+
+        if (region != null)
+            return region;
+
+        Path path = directory.resolve("r." + regionPosition.x + "." + regionPosition.y + ".bin");
+
+        if (!create && !Files.exists(path))
+            return null;
+
+        Files.createDirectories(directory);
+
+        region = RegionFile.create(path);
+
+        openRegions.put(regionPosition, region);
+
+        if (openRegions.size() > MAX_OPEN_REGIONS)
+        {
+            Iterator<Map.Entry<Vector2i, RegionFile>> iterator = openRegions.entrySet().iterator();
+
+            closeRegion(iterator.next().getValue());
+            iterator.remove();
+        }
+
+        return region;
+    }
+
+    private static void closeRegion(@NotNull RegionFile region)
+    {
+        try
+        {
+            region.close();
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Failed to close region file: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Creates a storage over a directory of region files.
+     *
+     * @param directory The directory, created when the first column is saved
+     * @return The new storage
+     */
+    public static @NotNull RegionStorage create(@NotNull Path directory)
+    {
+        RegionStorage result = new RegionStorage();
+
+        result.directory = directory;
+
+        return result;
+    }
+}
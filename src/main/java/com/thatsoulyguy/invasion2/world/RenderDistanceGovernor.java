@@ -0,0 +1,123 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import com.thatsoulyguy.invasion2.core.Settings;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Picks the render distance each frame: {@link Settings#RENDER_DISTANCE}, or with {@link Settings#ADAPTIVE_RENDER_DISTANCE} on,
+ * whatever distance up to it holds {@link Settings#TARGET_FRAME_TIME} and {@link Settings#TARGET_PENDING_GENERATIONS}.
+ * <p>
+ * The distance moves one column at a time and is reconsidered once per {@link #CHECK_INTERVAL_NANOS}. It shrinks when the
+ * smoothed frame time is over target, or when more columns are pending than the target and the backlog isn't draining. It grows
+ * when both are back under target, but only once it has held for the grow interval, which doubles every time a grow has to be
+ * taken back so a distance the machine can't hold isn't retried every few seconds.
+ */
+@CustomConstructor("create")
+public class RenderDistanceGovernor
+{
+    public static final long CHECK_INTERVAL_NANOS = 1_000_000_000L;
+    public static final long GROW_INTERVAL_NANOS = 5_000_000_000L;
+    public static final long MAX_GROW_INTERVAL_NANOS = 120_000_000_000L;
+
+    /**
+     * How far over the target frame time the average may be before the distance shrinks.
+     */
+    private static final double SLOW_FRAME_FACTOR = 1.2;
+
+    /**
+     * How far over the target frame time the average may be for the distance to grow; above 1 so a vsync-capped frame time that sits right on the target still counts.
+     */
+    private static final double GROW_FRAME_FACTOR = 1.05;
+
+    private static final double FRAME_TIME_SMOOTHING = 0.05;
+
+    private int distance = -1;
+
+    private double averageFrameNanos = 0;
+
+    private long lastFrame = 0;
+    private long lastCheck = 0;
+    private long lastChange = 0;
+
+    private boolean lastChangeWasGrow = false;
+
+    private long growInterval = GROW_INTERVAL_NANOS;
+
+    private int lastPendingGenerations = 0;
+
+    private RenderDistanceGovernor() { }
+
+    /**
+     * Records a frame and returns the render distance to use for it. Call once per frame, from one thread.
+     *
+     * @param pendingGenerations The number of columns queued or being generated
+     * @return The render distance in columns
+     */
+    public int update(int pendingGenerations)
+    {
+        long now = System.nanoTime();
+        int maximum = Math.clamp(Settings.RENDER_DISTANCE.getValue(), World.MIN_RENDER_DISTANCE, World.MAX_RENDER_DISTANCE);
+
+        if (!Settings.ADAPTIVE_RENDER_DISTANCE.getValue())
+        {
+            distance = maximum;
+            lastFrame = 0;
+
+            return distance;
+        }
+
+        double targetFrameNanos = Settings.TARGET_FRAME_TIME.getValue() * 1_000_000.0;
+
+        if (lastFrame == 0)
+        {
+            distance = distance < 0 ? maximum : Math.min(distance, maximum);
+            averageFrameNanos = targetFrameNanos;
+            lastFrame = now;
+            lastCheck = now;
+            lastChange = now;
+
+            return distance;
+        }
+
+        averageFrameNanos += ((now - lastFrame) - averageFrameNanos) * FRAME_TIME_SMOOTHING;
+        lastFrame = now;
+
+        distance = Math.min(distance, maximum);
+
+        if (now - lastCheck < CHECK_INTERVAL_NANOS)
+            return distance;
+
+        lastCheck = now;
+
+        int targetPending = Settings.TARGET_PENDING_GENERATIONS.getValue();
+
+        boolean fallingBehind = pendingGenerations > targetPending && pendingGenerations >= lastPendingGenerations;
+        boolean slow = averageFrameNanos > targetFrameNanos * SLOW_FRAME_FACTOR;
+
+        lastPendingGenerations = pendingGenerations;
+
+        if ((slow || fallingBehind) && distance > World.MIN_RENDER_DISTANCE)
+        {
+            if (lastChangeWasGrow && now - lastChange < growInterval * 2)
+                growInterval = Math.min(growInterval * 2, MAX_GROW_INTERVAL_NANOS);
+
+            distance--;
+            lastChange = now;
+            lastChangeWasGrow = false;
+        }
+        else if (!slow && averageFrameNanos <= targetFrameNanos * GROW_FRAME_FACTOR && pendingGenerations <= targetPending / 2 && distance < maximum && now - lastChange >= growInterval)
+        {
+            distance++;
+            lastChange = now;
+            lastChangeWasGrow = true;
+        }
+
+        return distance;
+    }
+
+    public static @NotNull RenderDistanceGovernor create()
+    {
+        return new RenderDistanceGovernor();
+    }
+}
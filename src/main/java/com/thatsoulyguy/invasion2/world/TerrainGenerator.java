@@ -1,6 +1,9 @@
 package com.thatsoulyguy.invasion2.world;
 
+import com.thatsoulyguy.invasion2.block.BlockRegistry;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
 import org.joml.Vector3i;
 
 import java.io.Serializable;
@@ -10,6 +13,8 @@ public abstract class TerrainGenerator implements Serializable
     private double scale;
     private long seed;
 
+    private transient @Nullable HeightmapCache heightmapCache;
+
     protected TerrainGenerator() { }
 
     /**
@@ -20,6 +25,86 @@ public abstract class TerrainGenerator implements Serializable
      */
     public abstract void generateBlocks(short[][][] blocks, Vector3i chunkPosition);
 
+    /**
+     * Fills the blocks array of one section of a column. Generators that compute per-column data (like a heightmap)
+     * should override this and keep that data on the column; by default it calls {@link #generateBlocks(short[][][], Vector3i)}.
+     *
+     * @param blocks The blocks array to fill
+     * @param chunkPosition The position of the chunk in chunk coordinates
+     * @param column The column the chunk belongs to
+     */
+    public void generateBlocks(short[][][] blocks, Vector3i chunkPosition, ChunkColumn column)
+    {
+        generateBlocks(blocks, chunkPosition);
+    }
+
+    /**
+     * Gets the stage of the {@link ChunkGenerationPipeline} the generator runs in. Generators in the same stage run in the order they were added.
+     */
+    public @NotNull ChunkStatus getStage()
+    {
+        return ChunkStatus.NOISE;
+    }
+
+    /**
+     * Gets the blocks the generator can change. Generators that only change solid blocks should return {@link GenerationMask#SOLID},
+     * so the sections of air above the terrain are skipped.
+     */
+    public @NotNull GenerationMask getMask()
+    {
+        return GenerationMask.ALL;
+    }
+
+    /**
+     * Runs the generator on the center column of a region. Generators that look across column borders, in a stage with a
+     * neighbor requirement, override this; by default it calls {@link #generateBlocks(short[][][], Vector3i, ChunkColumn)} for every
+     * section the {@link #getMask() mask} lets it change.
+     *
+     * @param region The column being generated and, if the stage requires them, its neighbors
+     */
+    public void generate(@NotNull GenerationRegion region)
+    {
+        Vector2i position = region.getPosition();
+
+        for (int y = 0; y < World.VERTICAL_CHUNKS; y++)
+        {
+            if (canAffect(region, y))
+                generateBlocks(region.getSectionBlocks(y), new Vector3i(position.x, y, position.y), region.getColumn());
+        }
+    }
+
+    /**
+     * Checks whether the generator's {@link #getMask() mask} lets it change anything in a section of the center column.
+     * This only decides whole sections; it doesn't narrow the blocks within one.
+     *
+     * @param region The column being generated
+     * @param sectionY The section's y position in chunk coordinates
+     */
+    protected boolean canAffect(@NotNull GenerationRegion region, int sectionY)
+    {
+        if (getMask() == GenerationMask.ALL)
+            return true;
+
+        int highestSurface = region.getColumn().getHighestSurface();
+
+        if (highestSurface != Integer.MIN_VALUE)
+            return sectionY * Chunk.SIZE < highestSurface;
+
+        for (short[][] plane : region.getSectionBlocks(sectionY))
+        {
+            for (short[] row : plane)
+            {
+                for (short block : row)
+                {
+                    if (block != BlockRegistry.BLOCK_AIR.getId())
+                        return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     public double getScale()
     {
         return scale;
@@ -40,6 +125,19 @@ public abstract class TerrainGenerator implements Serializable
         this.seed = seed;
     }
 
+    /**
+     * Gets the heightmap cache of the world being generated, or null when running outside a {@link ChunkGenerationPipeline}.
+     */
+    public @Nullable HeightmapCache getHeightmapCache()
+    {
+        return heightmapCache;
+    }
+
+    public void setHeightmapCache(@Nullable HeightmapCache heightmapCache)
+    {
+        this.heightmapCache = heightmapCache;
+    }
+
     public static <T extends TerrainGenerator> @NotNull T create(Class<T> clazz)
     {
         try
@@ -43,6 +43,16 @@ public class TextureAtlas extends Component implements ManagerLinkedClass
     }
 
     public void generate()
+    {
+        generate(true);
+    }
+
+    /**
+     * Packs the images in the directory and works out their texture coordinates.
+     *
+     * @param createTexture Whether to upload the packed images as a texture, which needs a GL context
+     */
+    public void generate(boolean createTexture)
     {
         try
         {
@@ -96,7 +106,8 @@ public class TextureAtlas extends Component implements ManagerLinkedClass
                 return;
             }
 
-            this.outputTexture = Texture.create(name + "_atlas", Texture.Filter.NEAREST, Texture.Wrapping.CLAMP_TO_EDGE, atlasSize, atlasSize, atlasBuffer);
+            if (createTexture)
+                this.outputTexture = Texture.create(name + "_atlas", Texture.Filter.NEAREST, Texture.Wrapping.CLAMP_TO_EDGE, atlasSize, atlasSize, atlasBuffer);
         }
         catch (Exception e)
         {
@@ -466,6 +477,21 @@ public class TextureAtlas extends Component implements ManagerLinkedClass
         return result;
     }
 
+    /**
+     * Creates an atlas with texture coordinates but no texture, for meshing without a GL context.
+     */
+    public static @NotNull TextureAtlas createHeadless(@NotNull String name, @NotNull AssetPath localPath)
+    {
+        TextureAtlas result = new TextureAtlas();
+
+        result.setName(name);
+        result.setLocalDirectory(localPath);
+
+        result.generate(false);
+
+        return result;
+    }
+
     private static class ImageData
     {
         String name;
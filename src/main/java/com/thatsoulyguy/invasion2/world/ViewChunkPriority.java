@@ -0,0 +1,70 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector3f;
+
+/**
+ * The default chunk priority: distance to the chunk loader, adjusted so the chunks the player is about to see come first.
+ * <ul>
+ *     <li>Distance is measured from wherever is closer, the loader or where it will be after {@link #LOOKAHEAD_SECONDS} at its current velocity.</li>
+ *     <li>Chunks behind the view count as up to {@link #BEHIND_VIEW_PENALTY} times further away, except the ones right around the loader.</li>
+ *     <li>Height below the loader counts {@link #DEPTH_PENALTY} times, so the surface loads before the caves under it.</li>
+ * </ul>
+ */
+@CustomConstructor("create")
+public class ViewChunkPriority implements ChunkPriorityFunction
+{
+    public static final float LOOKAHEAD_SECONDS = 1.5f;
+    public static final float BEHIND_VIEW_PENALTY = 2.0f;
+    public static final float DEPTH_PENALTY = 2.0f;
+
+    /**
+     * Chunks whose center is closer than this are loaded in plain distance order, wherever the loader is looking.
+     */
+    private static final float NEAR_DISTANCE = Chunk.SIZE * 1.5f;
+
+    private ViewChunkPriority() { }
+
+    @Override
+    public double getPriority(int chunkX, int chunkY, int chunkZ, @NotNull ChunkLoadView view)
+    {
+        float centerX = (chunkX + 0.5f) * Chunk.SIZE;
+        float centerY = (chunkY + 0.5f) * Chunk.SIZE;
+        float centerZ = (chunkZ + 0.5f) * Chunk.SIZE;
+
+        Vector3f position = view.position();
+        Vector3f velocity = view.velocity();
+        Vector3f forward = view.forward();
+
+        double distance = getDistance(centerX - position.x, centerY - position.y, centerZ - position.z);
+
+        double predictedDistance = getDistance(
+                centerX - (position.x + velocity.x * LOOKAHEAD_SECONDS),
+                centerY - (position.y + velocity.y * LOOKAHEAD_SECONDS),
+                centerZ - (position.z + velocity.z * LOOKAHEAD_SECONDS));
+
+        double result = Math.min(distance, predictedDistance);
+
+        if (distance < NEAR_DISTANCE || forward.lengthSquared() == 0)
+            return result;
+
+        double length = Math.sqrt((centerX - position.x) * (centerX - position.x) + (centerY - position.y) * (centerY - position.y) + (centerZ - position.z) * (centerZ - position.z));
+        double facing = ((centerX - position.x) * forward.x + (centerY - position.y) * forward.y + (centerZ - position.z) * forward.z) / length;
+
+        return result * (1.0 + (BEHIND_VIEW_PENALTY - 1.0) * (1.0 - facing) * 0.5);
+    }
+
+    private static double getDistance(float x, float y, float z)
+    {
+        if (y < 0)
+            y *= DEPTH_PENALTY;
+
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    public static @NotNull ViewChunkPriority create()
+    {
+        return new ViewChunkPriority();
+    }
+}
@@ -2,8 +2,11 @@ package com.thatsoulyguy.invasion2.world;
 
 import com.thatsoulyguy.invasion2.annotation.CustomConstructor;
 import com.thatsoulyguy.invasion2.annotation.EffectivelyNotNull;
+import com.thatsoulyguy.invasion2.block.BlockRegistry;
 import com.thatsoulyguy.invasion2.collider.Collider;
 import com.thatsoulyguy.invasion2.collider.colliders.VoxelMeshCollider;
+import com.thatsoulyguy.invasion2.core.Settings;
+import com.thatsoulyguy.invasion2.math.Rigidbody;
 import com.thatsoulyguy.invasion2.math.Transform;
 import com.thatsoulyguy.invasion2.render.Mesh;
 import com.thatsoulyguy.invasion2.render.ShaderManager;
@@ -12,14 +15,19 @@ import com.thatsoulyguy.invasion2.system.GameObject;
 import com.thatsoulyguy.invasion2.system.GameObjectManager;
 import com.thatsoulyguy.invasion2.system.Layer;
 import com.thatsoulyguy.invasion2.util.CoordinateHelper;
+import com.thatsoulyguy.invasion2.util.FileHelper;
 import com.thatsoulyguy.invasion2.util.SerializableObject;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
 import org.joml.Vector3f;
 import org.joml.Vector3i;
 
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @CustomConstructor("create")
 public class World extends Component
@@ -27,7 +35,36 @@ public class World extends Component
     public static final int WORLD_HEIGHT = 256;
     public static final int VERTICAL_CHUNKS = WORLD_HEIGHT / Chunk.SIZE;
 
-    public static final byte RENDER_DISTANCE = 5;
+    public static final int MIN_RENDER_DISTANCE = 2;
+    public static final int MAX_RENDER_DISTANCE = 32;
+
+    public static final String TEXTURE_ATLAS = "blocks";
+
+    /**
+     * The most built chunk meshes that can wait for upload before the meshing workers block.
+     */
+    public static final int MESH_UPLOAD_QUEUE_CAPACITY = 64;
+
+    /**
+     * The time the main thread spends uploading chunk meshes each frame. At least one mesh is uploaded per frame regardless.
+     */
+    public static final long MESH_UPLOAD_BUDGET_NANOS = 2_000_000L;
+
+    /**
+     * The most columns loading or generating at once per generation thread; the rest wait in the load scheduler, where they can still be reordered or dropped.
+     */
+    public static final int RUNNING_GENERATIONS_PER_THREAD = 2;
+
+    /**
+     * The memory the blocks of unloaded columns may take up before the least recently used ones are dropped, or saved to their region file if they were edited.
+     */
+    public static final long CHUNK_CACHE_BUDGET_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The processors per meshing thread. The meshing threads come out of the generation pool's share, so meshing, generation and
+     * the {@link ChunkGenerationExecutor#RESERVED_PROCESSORS} for the main and update threads never add up to more than the machine has.
+     */
+    public static final int PROCESSORS_PER_MESHING_THREAD = 4;
 
     public long seed = 354576879657L;
 
@@ -35,79 +72,287 @@ public class World extends Component
 
     public @Nullable Transform chunkLoader;
 
-    private final @NotNull Set<Vector3i> loadedChunks = ConcurrentHashMap.newKeySet();
+    /**
+     * The transform whose forward direction the chunk loader looks along, usually the player's camera. Falls back to {@link #chunkLoader} if null.
+     */
+    public @Nullable Transform chunkLoaderView;
+
+    private final @NotNull Set<Vector3i> pendingRemeshes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Every loaded column, keyed by its x and z position in chunk coordinates. Columns are only added once all their sections are generated.
+     * Sections include data-only chunks that have no GameObject because they have no visible faces.
+     */
+    private transient @EffectivelyNotNull ConcurrentMap<Vector2i, ChunkColumn> columns;
+
+    /**
+     * Every section of {@link #columns}, keyed by its packed position, so block queries can find a chunk without allocating.
+     */
+    private transient @EffectivelyNotNull ChunkIndex chunkIndex;
+
+    private transient @EffectivelyNotNull ChunkCache chunkCache;
+
+    private transient @EffectivelyNotNull RegionStorage regionStorage;
 
-    private final @NotNull Set<Vector3i> generatingChunks = ConcurrentHashMap.newKeySet();
+    private transient @EffectivelyNotNull ChunkSaver chunkSaver;
 
-    private final @NotNull ConcurrentMap<Vector3i, Future<?>> ongoingChunkGenerations = new ConcurrentHashMap<>();
+    /**
+     * Loaded columns edited since the last autosave, so the next one only snapshots those.
+     */
+    private transient @EffectivelyNotNull Set<Vector2i> dirtyColumns;
+
+    private transient long lastAutosave;
+
+    /**
+     * Stands in for a neighbor that has not loaded yet while meshing, so faces against it stay hidden until it loads.
+     */
+    private transient @EffectivelyNotNull Chunk unloadedChunk;
 
     private final @NotNull List<TerrainGenerator> terrainGenerators = new ArrayList<>();
 
-    private transient @EffectivelyNotNull ExecutorService chunkGenerationExecutor;
+    private transient @EffectivelyNotNull ChunkGenerationExecutor chunkGenerationExecutor;
+
+    private transient @EffectivelyNotNull ChunkGenerationPipeline generationPipeline;
+
+    private transient @EffectivelyNotNull ChunkLoadScheduler loadScheduler;
+
+    private transient @EffectivelyNotNull RenderDistanceGovernor renderDistanceGovernor;
+
+    private transient int renderDistance;
+
+    /**
+     * The column that {@link #simulationDistance} is measured from, or null before the chunk loader's first update.
+     */
+    private transient volatile @Nullable Vector2i simulationCenter;
+
+    private transient volatile int simulationDistance;
+
+    private transient @EffectivelyNotNull ExecutorService chunkMeshingExecutor;
+
+    /**
+     * Numbers meshing requests in the order they're queued, so requests of equal priority run in that order.
+     */
+    private transient @EffectivelyNotNull AtomicLong meshingSequence;
+
+    private transient @EffectivelyNotNull ChunkUploadQueue meshUploadQueue;
+
+    private transient @Nullable ChunkPriorityFunction chunkPriority;
+
+    /**
+     * The chunk loader as of the last update, read by the meshing workers and the main thread.
+     */
+    private transient volatile @EffectivelyNotNull ChunkLoadView loadView;
 
     private final @NotNull SerializableObject chunkLock = new SerializableObject();
 
+    private transient boolean greedyMeshing;
+    private transient boolean bakedAmbientOcclusion;
+
     private World() { }
 
     @Override
     public void initialize()
     {
-        generatingChunks.clear();
-        chunkGenerationExecutor = Executors.newFixedThreadPool(3);
+        columns = new ConcurrentHashMap<>();
+        renderDistanceGovernor = RenderDistanceGovernor.create();
+        renderDistance = Math.clamp(Settings.RENDER_DISTANCE.getValue(), MIN_RENDER_DISTANCE, MAX_RENDER_DISTANCE);
+        chunkIndex = ChunkIndex.create((2 * renderDistance + 3) * (2 * renderDistance + 3) * VERTICAL_CHUNKS);
+        regionStorage = RegionStorage.create(Path.of(FileHelper.getPersistentDataPath("Invasion2"), name, "region"));
+        chunkSaver = ChunkSaver.create(regionStorage);
+        chunkCache = ChunkCache.create(CHUNK_CACHE_BUDGET_BYTES, chunkSaver);
+        dirtyColumns = ConcurrentHashMap.newKeySet();
+        lastAutosave = System.nanoTime();
+        unloadedChunk = createSolidChunk();
+        if (chunkPriority == null)
+            chunkPriority = ViewChunkPriority.create();
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        int meshingThreads = Math.max(1, processors / PROCESSORS_PER_MESHING_THREAD);
+        int generationThreads = Math.max(1, processors - ChunkGenerationExecutor.RESERVED_PROCESSORS - meshingThreads);
+
+        loadView = new ChunkLoadView(new Vector3f(), new Vector3f(), new Vector3f());
+        chunkGenerationExecutor = ChunkGenerationExecutor.create(columnPosition -> loadScheduler.getPriority(columnPosition, loadView), generationThreads);
+        generationPipeline = ChunkGenerationPipeline.create(this, chunkGenerationExecutor);
+        loadScheduler = ChunkLoadScheduler.create(chunkGenerationExecutor.getThreadCount() * RUNNING_GENERATIONS_PER_THREAD, this::loadColumn, this::getChunkPriority);
+        chunkMeshingExecutor = createMeshingExecutor(meshingThreads);
+        meshingSequence = new AtomicLong();
+        meshUploadQueue = ChunkUploadQueue.create(MESH_UPLOAD_QUEUE_CAPACITY);
+        greedyMeshing = Settings.GREEDY_MESHING.getValue();
+        bakedAmbientOcclusion = Settings.BAKED_AMBIENT_OCCLUSION.getValue();
     }
 
     @Override
     public void update()
     {
+        if (chunkLoader != null)
+            loadView = createLoadView(chunkLoader);
+
+        if (greedyMeshing != Settings.GREEDY_MESHING.getValue() || bakedAmbientOcclusion != Settings.BAKED_AMBIENT_OCCLUSION.getValue())
+        {
+            greedyMeshing = Settings.GREEDY_MESHING.getValue();
+            bakedAmbientOcclusion = Settings.BAKED_AMBIENT_OCCLUSION.getValue();
+
+            getLoadedChunks().forEach(this::requestMesh);
+        }
+
+        renderDistance = renderDistanceGovernor.update(loadScheduler.getPendingCount());
+
         loadCloseChunks();
-        unloadFarChunks();
+
+        long now = System.nanoTime();
+
+        if (now - lastAutosave >= (long) (Settings.AUTOSAVE_INTERVAL.getValue() * 1_000_000_000L))
+        {
+            lastAutosave = now;
+
+            saveDirtyColumns();
+        }
+    }
+
+    /**
+     * Uploads the chunk meshes waiting in the upload queue, highest priority first, until the frame's budget runs out.
+     */
+    @Override
+    public void updateMainThread()
+    {
+        ChunkLoadView view = loadView;
+
+        long start = System.nanoTime();
+
+        do
+        {
+            ChunkMeshUpload upload = meshUploadQueue.pollFirst(this::getChunkPriority, view);
+
+            if (upload == null)
+                break;
+
+            upload.chunk().applyMesh(upload, true);
+        }
+        while (System.nanoTime() - start < MESH_UPLOAD_BUDGET_NANOS);
     }
 
-    public @NotNull Chunk generateChunk(@NotNull Vector3i chunkPosition)
+    /**
+     * Gives a data-only chunk its GameObject, with the collider, shader, texture atlas and mesh it needs to be rendered.
+     *
+     * @param chunk The chunk, which must not have a GameObject yet
+     */
+    void createChunkObject(@NotNull Chunk chunk)
     {
-        GameObject object = GameObject.create("default.chunk_" + chunkPosition.x + "_" + chunkPosition.y + "_" + chunkPosition.z, Layer.DEFAULT);
+        Vector3i chunkPosition = chunk.getPosition();
+
+        GameObject object = GameObject.create(getChunkObjectName(chunkPosition), Layer.DEFAULT);
 
         object.getTransform().setLocalPosition(CoordinateHelper.chunkToWorldCoordinates(chunkPosition));
 
-        object.addComponent(Collider.create(VoxelMeshCollider.class));
+        object.addComponent(Collider.create(VoxelMeshCollider.class)).setCollidable(isSimulated(chunkPosition.x, chunkPosition.z));
 
         object.addComponent(Objects.requireNonNull(ShaderManager.get("pass.geometry")));
-        object.addComponent(Objects.requireNonNull(TextureAtlasManager.get("blocks")));
+        object.addComponent(Objects.requireNonNull(TextureAtlasManager.get(TEXTURE_ATLAS)));
 
         object.addComponent(Mesh.create(new ArrayList<>(), new ArrayList<>()));
 
-        short[][][] blocks = new short[Chunk.SIZE][Chunk.SIZE][Chunk.SIZE];
+        object.addComponent(chunk);
+    }
 
-        terrainGenerators.forEach(generator ->
+    public void unloadColumn(@NotNull Vector2i columnPosition)
+    {
+        ChunkColumn column = columns.remove(columnPosition);
+
+        if (column == null)
         {
-            generator.setSeed(seed);
-            generator.setScale(0.006d);
-            generator.generateBlocks(blocks, chunkPosition);
-        });
+            System.err.println("Loaded columns map does not contain key: " + columnPosition + "!");
+            return;
+        }
+
+        for (int y = 0; y < VERTICAL_CHUNKS; y++)
+        {
+            Chunk chunk = chunkIndex.remove(columnPosition.x, y, columnPosition.y);
+
+            if (chunk != null && chunk.hasGameObject())
+                GameObjectManager.unregister(getChunkObjectName(chunk.getPosition()), true);
+        }
 
-        object.addComponent(Chunk.create(blocks));
+        cacheColumn(columnPosition, column);
+    }
 
-        Objects.requireNonNull(object.getComponent(Chunk.class)).onLoad();
+    /**
+     * Hands the blocks of a column that is leaving the world to the chunk cache, and compresses them in the background.
+     */
+    private void cacheColumn(@NotNull Vector2i columnPosition, @NotNull ChunkColumn column)
+    {
+        chunkCache.put(columnPosition, getBlockStorage(column), column.isModified());
 
-        return Objects.requireNonNull(object.getComponent(Chunk.class));
+        chunkGenerationExecutor.execute(() -> chunkCache.compress(columnPosition));
     }
 
-    public void unloadChunk(@NotNull Vector3i chunkPosition)
+    static @NotNull PalettedBlockStorage[] getBlockStorage(@NotNull ChunkColumn column)
+    {
+        PalettedBlockStorage[] sections = new PalettedBlockStorage[VERTICAL_CHUNKS];
+
+        for (int y = 0; y < VERTICAL_CHUNKS; y++)
+            sections[y] = Objects.requireNonNull(column.getSection(y)).getBlockStorage();
+
+        return sections;
+    }
+
+    /**
+     * Rebuilds a column from the chunk cache, or failing that from the chunk saver's queue or its region file.
+     *
+     * @param columnPosition The x and z position of the column in chunk coordinates
+     * @return The column, or null if it has never been saved and has to be generated
+     */
+    private @Nullable ChunkColumn restoreColumn(@NotNull Vector2i columnPosition)
     {
-        if (!loadedChunks.contains(chunkPosition))
+        ChunkCache.CachedColumn cached = chunkCache.take(columnPosition);
+
+        if (cached == null)
         {
-            System.err.println("Loaded chunks list does not contain key: " + chunkPosition + "!");
-            return;
+            PalettedBlockStorage[] sections = chunkSaver.getPending(columnPosition);
+
+            if (sections == null)
+                sections = regionStorage.read(columnPosition);
+
+            if (sections == null)
+                return null;
+
+            cached = new ChunkCache.CachedColumn(sections, false);
+        }
+
+        if (cached.sections().length != VERTICAL_CHUNKS)
+        {
+            System.err.println("Cached column " + columnPosition + " has " + cached.sections().length + " sections, expected " + VERTICAL_CHUNKS + "!");
+            return null;
         }
 
-        GameObjectManager.unregister("default.chunk_" + chunkPosition.x + "_" + chunkPosition.y + "_" + chunkPosition.z, true);
+        ChunkColumn column = ChunkColumn.create(columnPosition);
 
-        loadedChunks.remove(chunkPosition);
+        for (int y = 0; y < VERTICAL_CHUNKS; y++)
+            column.setSection(y, Chunk.create(this, new Vector3i(columnPosition.x, y, columnPosition.y), cached.sections()[y], cached.modified()));
+
+        column.setStatus(ChunkStatus.FULL);
+
+        return column;
     }
 
+    /**
+     * Gets the position of every section of every loaded column.
+     */
     public @NotNull List<Vector3i> getLoadedChunks()
     {
-        return loadedChunks.stream().toList();
+        List<Vector3i> result = new ArrayList<>();
+
+        for (Vector2i columnPosition : columns.keySet())
+        {
+            for (int y = 0; y < VERTICAL_CHUNKS; y++)
+                result.add(new Vector3i(columnPosition.x, y, columnPosition.y));
+        }
+
+        return result;
+    }
+
+    public @NotNull List<Vector2i> getLoadedColumns()
+    {
+        return columns.keySet().stream().toList();
     }
 
     public @NotNull String getName()
@@ -115,6 +360,48 @@ public class World extends Component
         return name;
     }
 
+    /**
+     * Gets the render distance in use, which may be below {@link Settings#RENDER_DISTANCE} while the render distance governor is holding it down.
+     */
+    public int getRenderDistance()
+    {
+        return renderDistance;
+    }
+
+    /**
+     * Gets the executor that loads and generates columns, for its queue depth and throughput.
+     */
+    public @NotNull ChunkGenerationExecutor getGenerationExecutor()
+    {
+        return chunkGenerationExecutor;
+    }
+
+    /**
+     * Gets the terrain heightmaps of the columns in and around the loaded area, for looking up the surface height without sampling the terrain noise.
+     */
+    public @NotNull HeightmapCache getHeightmapCache()
+    {
+        return generationPipeline.getHeightmapCache();
+    }
+
+    /**
+     * Checks whether a column is within the simulation distance, so its chunks' colliders are active.
+     *
+     * @param columnX The x position of the column in chunk coordinates
+     * @param columnZ The z position of the column in chunk coordinates
+     */
+    public boolean isSimulated(int columnX, int columnZ)
+    {
+        Vector2i center = simulationCenter;
+
+        if (center == null)
+            return true;
+
+        int distance = simulationDistance;
+
+        return Math.abs(columnX - center.x) <= distance && Math.abs(columnZ - center.y) <= distance;
+    }
+
     /**
      * Sets the type of a block in the world.
      *
@@ -126,11 +413,18 @@ public class World extends Component
         Vector3i blockCoordinates = CoordinateHelper.worldToBlockCoordinates(worldPosition);
         Vector3i chunkCoordinates = CoordinateHelper.worldToChunkCoordinates(worldPosition);
 
-        if (!loadedChunks.contains(chunkCoordinates))
+        Chunk chunk = getChunk(chunkCoordinates);
+
+        if (chunk == null)
             return false;
         else
         {
-            Objects.requireNonNull(getChunk(chunkCoordinates)).setBlock(blockCoordinates, type);
+            chunk.setBlock(blockCoordinates, type);
+
+            dirtyColumns.add(new Vector2i(chunkCoordinates.x, chunkCoordinates.z));
+
+            rebuildBorderingChunks(chunkCoordinates, blockCoordinates);
+
             return true;
         }
     }
@@ -144,15 +438,7 @@ public class World extends Component
      */
     public short getBlock(@NotNull Vector3f worldPosition)
     {
-        Vector3i blockCoordinates = CoordinateHelper.worldToBlockCoordinates(worldPosition);
-        Vector3i chunkCoordinates = CoordinateHelper.worldToChunkCoordinates(worldPosition);
-
-        if (!loadedChunks.contains(chunkCoordinates))
-            return -1;
-        else
-        {
-            return Objects.requireNonNull(getChunk(chunkCoordinates)).getBlock(blockCoordinates);
-        }
+        return getBlock((int) Math.floor(worldPosition.x), (int) Math.floor(worldPosition.y), (int) Math.floor(worldPosition.z));
     }
 
     /**
@@ -164,22 +450,214 @@ public class World extends Component
      */
     public short getBlock(@NotNull Vector3i blockPosition)
     {
-        Vector3i chunkCoordinates = CoordinateHelper.worldToChunkCoordinates(CoordinateHelper.globalBlockToWorldCoordinates(blockPosition));
+        return getBlock(blockPosition.x, blockPosition.y, blockPosition.z);
+    }
+
+    /**
+     * Gets the type of block in the world, without allocating.
+     * Returns -1 if no block is found
+     *
+     * @param x The x position of the block in global block coordinates
+     * @param y The y position of the block in global block coordinates
+     * @param z The z position of the block in global block coordinates
+     * @return The type of the block
+     */
+    public short getBlock(int x, int y, int z)
+    {
+        Chunk chunk = chunkIndex.get(Math.floorDiv(x, Chunk.SIZE), Math.floorDiv(y, Chunk.SIZE), Math.floorDiv(z, Chunk.SIZE));
 
-        if (!loadedChunks.contains(chunkCoordinates))
+        if (chunk == null)
             return -1;
         else
+            return chunk.getBlock(x, y, z);
+    }
+
+    public @Nullable Chunk getChunk(@NotNull Vector3i chunkPosition)
+    {
+        return chunkIndex.get(chunkPosition.x, chunkPosition.y, chunkPosition.z);
+    }
+
+    /**
+     * Gets a loaded chunk, without allocating.
+     *
+     * @param x The x position in chunk coordinates
+     * @param y The y position in chunk coordinates
+     * @param z The z position in chunk coordinates
+     * @return The chunk, or null if it isn't loaded
+     */
+    public @Nullable Chunk getChunk(int x, int y, int z)
+    {
+        return chunkIndex.get(x, y, z);
+    }
+
+    public @Nullable ChunkColumn getColumn(@NotNull Vector2i columnPosition)
+    {
+        return columns.get(columnPosition);
+    }
+
+    /**
+     * Looks up a neighbor of a chunk for meshing.
+     * A face neighbor inside the world that has not loaded yet counts as solid, so the faces against it (and, for sections buried in stone, the whole section) stay hidden
+     * until its column loads and {@link #requestNeighborRemeshes(Vector2i)} rebuilds the neighboring columns. Anything else that is missing counts as air.
+     *
+     * @param chunkPosition The chunk being meshed
+     * @param offset The offset of the neighbor, each component in [-1, 1]
+     * @return The neighbor, or null for air
+     */
+    @Nullable Chunk getMeshingNeighbor(@NotNull Vector3i chunkPosition, @NotNull Vector3i offset)
+    {
+        Vector3i neighborPosition = new Vector3i(chunkPosition).add(offset);
+
+        Chunk neighbor = getChunk(neighborPosition);
+
+        if (neighbor != null)
+            return neighbor;
+
+        boolean faceNeighbor = Math.abs(offset.x) + Math.abs(offset.y) + Math.abs(offset.z) == 1;
+
+        return faceNeighbor && neighborPosition.y < VERTICAL_CHUNKS ? unloadedChunk : null;
+    }
+
+    private static @NotNull String getChunkObjectName(@NotNull Vector3i chunkPosition)
+    {
+        return "default.chunk_" + chunkPosition.x + "_" + chunkPosition.y + "_" + chunkPosition.z;
+    }
+
+    private static @NotNull Chunk createSolidChunk()
+    {
+        short[][][] blocks = new short[Chunk.SIZE][Chunk.SIZE][Chunk.SIZE];
+
+        for (short[][] plane : blocks)
         {
-            return Objects.requireNonNull(getChunk(chunkCoordinates)).getBlock(blockPosition);
+            for (short[] row : plane)
+                Arrays.fill(row, BlockRegistry.BLOCK_STONE.getId());
         }
+
+        return Chunk.create(blocks);
     }
 
-    public @Nullable Chunk getChunk(@NotNull Vector3i chunkPosition)
+    /**
+     * Updates the blocks around an edited block that lie in neighboring chunks, so their border faces and ambient occlusion match the edit.
+     *
+     * @param chunkPosition The chunk containing the edited block
+     * @param blockPosition The position of the edited block in chunk space
+     */
+    private void rebuildBorderingChunks(@NotNull Vector3i chunkPosition, @NotNull Vector3i blockPosition)
     {
-        if (!loadedChunks.contains(chunkPosition))
-            return null;
+        Map<Vector3i, List<Vector3i>> changedBlocks = new HashMap<>();
+
+        for (int x = -1; x <= 1; x++)
+        {
+            for (int y = -1; y <= 1; y++)
+            {
+                for (int z = -1; z <= 1; z++)
+                {
+                    Vector3i position = new Vector3i(blockPosition).add(x, y, z);
+
+                    Vector3i offset = new Vector3i(Math.floorDiv(position.x, Chunk.SIZE), Math.floorDiv(position.y, Chunk.SIZE), Math.floorDiv(position.z, Chunk.SIZE));
+
+                    if (offset.x == 0 && offset.y == 0 && offset.z == 0)
+                        continue;
+
+                    Vector3i localPosition = new Vector3i(Math.floorMod(position.x, Chunk.SIZE), Math.floorMod(position.y, Chunk.SIZE), Math.floorMod(position.z, Chunk.SIZE));
+
+                    changedBlocks.computeIfAbsent(offset.add(chunkPosition), _ -> new ArrayList<>()).add(localPosition);
+                }
+            }
+        }
+
+        changedBlocks.forEach((neighborPosition, positions) ->
+        {
+            Chunk neighbor = getChunk(neighborPosition);
+
+            if (neighbor != null)
+                neighbor.refreshBlocks(positions);
+        });
+    }
+
+    /**
+     * Queues a rebuild of every section of the loaded columns that share a side with the given column.
+     * Called once a column has finished loading, since its neighbors were meshed without its blocks.
+     *
+     * @param columnPosition The column that finished loading
+     */
+    private void requestNeighborRemeshes(@NotNull Vector2i columnPosition)
+    {
+        for (int axis = 0; axis < 2; axis++)
+        {
+            for (int offset = -1; offset <= 1; offset += 2)
+            {
+                Vector2i neighborPosition = new Vector2i(columnPosition).setComponent(axis, columnPosition.get(axis) + offset);
+
+                if (!columns.containsKey(neighborPosition))
+                    continue;
+
+                for (int y = 0; y < VERTICAL_CHUNKS; y++)
+                    requestMesh(new Vector3i(neighborPosition.x, y, neighborPosition.y));
+            }
+        }
+    }
+
+    /**
+     * Queues a chunk on the meshing stage. The built mesh goes into the upload queue, which the main thread drains in {@link #updateMainThread()}.
+     * Requests for a chunk that is already queued are merged. The meshing workers take queued chunks in priority order, as ranked when they were requested.
+     *
+     * @param chunkPosition The chunk to mesh
+     */
+    private void requestMesh(@NotNull Vector3i chunkPosition)
+    {
+        if (!pendingRemeshes.add(chunkPosition))
+            return;
+
+        double priority = getChunkPriority(chunkPosition.x, chunkPosition.y, chunkPosition.z, loadView);
+
+        chunkMeshingExecutor.execute(new PrioritizedTask(priority, meshingSequence.getAndIncrement(), () ->
+        {
+            pendingRemeshes.remove(chunkPosition);
+
+            Chunk chunk = getChunk(chunkPosition);
+
+            if (chunk == null)
+                return;
+
+            ChunkMeshUpload upload = chunk.buildMesh();
+
+            if (upload == null)
+                return;
+
+            try
+            {
+                meshUploadQueue.put(upload);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+
+    /**
+     * Replaces the function that orders chunk loading, meshing and uploading. Defaults to {@link ViewChunkPriority}.
+     */
+    public void setChunkPriority(@NotNull ChunkPriorityFunction chunkPriority)
+    {
+        this.chunkPriority = chunkPriority;
+    }
+
+    private double getChunkPriority(int chunkX, int chunkY, int chunkZ, @NotNull ChunkLoadView view)
+    {
+        return Objects.requireNonNull(chunkPriority).getPriority(chunkX, chunkY, chunkZ, view);
+    }
+
+    private @NotNull ChunkLoadView createLoadView(@NotNull Transform loader)
+    {
+        Vector3f forward = (chunkLoaderView != null ? chunkLoaderView : loader).getForward();
+
+        Rigidbody rigidbody = loader.getGameObject().getComponent(Rigidbody.class);
+
+        Vector3f velocity = rigidbody != null ? new Vector3f(rigidbody.getVelocity()) : new Vector3f();
 
-        return Objects.requireNonNull(GameObjectManager.get("default.chunk_" + chunkPosition.x + "_" + chunkPosition.y + "_" + chunkPosition.z)).getComponent(Chunk.class);
+        return new ChunkLoadView(loader.getWorldPosition(), forward, velocity);
     }
 
     public static @NotNull World getLocalWorld()
@@ -192,102 +670,195 @@ public class World extends Component
         terrainGenerators.add(generator);
     }
 
+    @NotNull List<TerrainGenerator> getTerrainGenerators()
+    {
+        return terrainGenerators;
+    }
+
+    /**
+     * Queues the columns around the chunk loader for generation. The wanted area is only recomputed, and far columns unloaded, when the loader moves to another column
+     * or the render distance changes. Likewise, chunk colliders are only switched on or off when the simulation area changes.
+     */
     public void loadCloseChunks()
     {
         if (chunkLoader == null)
             return;
 
         Vector3f playerWorldPosition = chunkLoader.getWorldPosition();
-        Vector3i playerChunkPosition = CoordinateHelper.worldToChunkCoordinates(playerWorldPosition);
 
-        List<Vector3i> chunkPositions = new ArrayList<>();
+        int columnX = Math.floorDiv((int) Math.floor(playerWorldPosition.x), Chunk.SIZE);
+        int columnZ = Math.floorDiv((int) Math.floor(playerWorldPosition.z), Chunk.SIZE);
+
+        if (loadScheduler.update(columnX, columnZ, renderDistance, loadView, columns::containsKey))
+            unloadFarChunks();
 
-        for (int cx = playerChunkPosition.x - RENDER_DISTANCE; cx <= playerChunkPosition.x + RENDER_DISTANCE; cx++)
+        chunkGenerationExecutor.reprioritize();
+
+        int newSimulationDistance = Math.clamp(Settings.SIMULATION_DISTANCE.getValue(), 0, renderDistance);
+        Vector2i center = simulationCenter;
+
+        if (center == null || center.x != columnX || center.y != columnZ || newSimulationDistance != simulationDistance)
         {
-            for (int cz = playerChunkPosition.z - RENDER_DISTANCE; cz <= playerChunkPosition.z + RENDER_DISTANCE; cz++)
-            {
-                for (int cy = 0; cy < VERTICAL_CHUNKS; cy++)
-                    chunkPositions.add(new Vector3i(cx, cy, cz));
-            }
-        }
+            simulationDistance = newSimulationDistance;
+            simulationCenter = new Vector2i(columnX, columnZ);
 
-        chunkPositions.sort(Comparator.comparingInt(pos -> Math.toIntExact(playerChunkPosition.distanceSquared(pos))));
+            updateSimulatedColliders();
+        }
+    }
 
-        for (Vector3i currentChunk : chunkPositions)
+    /**
+     * Switches the colliders of loaded chunks on inside the simulation distance and off outside it, so physics only considers nearby chunks.
+     */
+    private void updateSimulatedColliders()
+    {
+        for (ChunkColumn column : columns.values())
         {
-            if (loadedChunks.contains(currentChunk) || ongoingChunkGenerations.containsKey(currentChunk))
-                continue;
+            Vector2i columnPosition = column.getPosition();
+            boolean simulated = isSimulated(columnPosition.x, columnPosition.y);
 
-            Future<?> future = chunkGenerationExecutor.submit(() ->
+            for (int y = 0; y < VERTICAL_CHUNKS; y++)
             {
-                try
-                {
-                    generateChunk(currentChunk);
+                Chunk chunk = column.getSection(y);
 
-                    synchronized (chunkLock)
-                    {
-                        if (!loadedChunks.add(currentChunk))
-                            System.err.println("Chunk already loaded: " + currentChunk);
-                    }
-                }
-                catch (Exception e)
-                {
-                    System.err.println("Error generating chunk " + currentChunk + ": " + e.getMessage());
-                    e.printStackTrace();
-                }
-                finally
-                {
-                    ongoingChunkGenerations.remove(currentChunk);
-                }
-            });
+                if (chunk == null || !chunk.hasGameObject())
+                    continue;
+
+                VoxelMeshCollider collider = chunk.getGameObject().getComponent(VoxelMeshCollider.class);
 
-            ongoingChunkGenerations.put(currentChunk, future);
+                if (collider != null && collider.isCollidable() != simulated)
+                    collider.setCollidable(simulated);
+            }
         }
     }
 
-    private void unloadFarChunks()
+    /**
+     * Restores a column from the chunk cache or its region file on the generation executor, or else generates it through the
+     * pipeline, and adds it to the world unless it stopped being wanted in the meantime, in which case it goes (back) into the cache.
+     *
+     * @param columnPosition The x and z position of the column in chunk coordinates
+     * @return A future that completes once the column has been added or cached
+     */
+    private @NotNull CompletableFuture<Void> loadColumn(@NotNull Vector2i columnPosition)
+    {
+        return chunkGenerationExecutor.submit(columnPosition, () -> restoreColumn(columnPosition))
+                .thenCompose(column -> column != null ? CompletableFuture.completedFuture(column) : generationPipeline.generate(columnPosition))
+                .thenAccept(column -> addColumn(columnPosition, column))
+                .whenComplete((result, exception) ->
+                {
+                    if (exception != null && !(exception.getCause() instanceof CancellationException) && !(exception instanceof CancellationException))
+                    {
+                        System.err.println("Error loading column " + columnPosition + ": " + exception.getMessage());
+                        exception.printStackTrace();
+                    }
+                });
+    }
+
+    private void addColumn(@NotNull Vector2i columnPosition, @NotNull ChunkColumn column)
     {
         synchronized (chunkLock)
         {
-            if (chunkLoader == null)
+            if (!loadScheduler.isWanted(columnPosition))
+            {
+                cacheColumn(columnPosition, column);
                 return;
+            }
 
-            Vector3f playerWorldPosition = chunkLoader.getWorldPosition();
-            Vector3i playerChunkPosition = CoordinateHelper.worldToChunkCoordinates(playerWorldPosition);
+            if (columns.putIfAbsent(columnPosition, column) != null)
+            {
+                System.err.println("Column already loaded: " + columnPosition);
+                return;
+            }
 
-            int unloadDistance = RENDER_DISTANCE + 1;
+            for (int y = 0; y < VERTICAL_CHUNKS; y++)
+                chunkIndex.put(Objects.requireNonNull(column.getSection(y)));
 
-            loadedChunks.removeIf(chunkPosition ->
-            {
-                int dx = Math.abs(chunkPosition.x - playerChunkPosition.x);
-                int dz = Math.abs(chunkPosition.z - playerChunkPosition.z);
+            if (column.isModified())
+                dirtyColumns.add(columnPosition);
+        }
 
-                if (dx > unloadDistance || dz > unloadDistance)
-                {
-                    unloadChunk(chunkPosition);
-                    return true;
-                }
+        for (int y = 0; y < VERTICAL_CHUNKS; y++)
+            requestMesh(new Vector3i(columnPosition.x, y, columnPosition.y));
+
+        requestNeighborRemeshes(columnPosition);
+    }
 
-                return false;
-            });
+    private void unloadFarChunks()
+    {
+        synchronized (chunkLock)
+        {
+            for (Vector2i columnPosition : columns.keySet())
+            {
+                if (!loadScheduler.isWanted(columnPosition))
+                    unloadColumn(columnPosition);
+            }
         }
+
+        generationPipeline.discard(loadScheduler::isWanted);
+        chunkGenerationExecutor.cancel(columnPosition -> !loadScheduler.isWanted(columnPosition));
     }
 
     @Override
     public void uninitialize()
     {
-        chunkGenerationExecutor.shutdown();
+        chunkMeshingExecutor.shutdownNow();
+        loadScheduler.cancelAll();
+        generationPipeline.discard(columnPosition -> false);
+        chunkGenerationExecutor.shutdown(20, TimeUnit.SECONDS);
 
-        try
+        for (ChunkColumn column : columns.values())
         {
-            if (!chunkGenerationExecutor.awaitTermination(20, TimeUnit.SECONDS))
-                chunkGenerationExecutor.shutdownNow();
+            if (column.isModified())
+                saveColumn(column);
         }
-        catch (InterruptedException e)
+
+        chunkCache.saveModified();
+        chunkSaver.close();
+    }
+
+    /**
+     * Hands snapshots of the loaded columns edited since the last autosave, and the edited columns in the chunk cache, to the chunk saver.
+     * Only the snapshots are taken here; compressing and writing them happens on the saver's thread.
+     */
+    private void saveDirtyColumns()
+    {
+        Iterator<Vector2i> iterator = dirtyColumns.iterator();
+
+        while (iterator.hasNext())
         {
-            chunkGenerationExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
+            ChunkColumn column = columns.get(iterator.next());
+
+            iterator.remove();
+
+            if (column != null && column.isModified())
+                saveColumn(column);
         }
+
+        chunkCache.saveModified();
+    }
+
+    private void saveColumn(@NotNull ChunkColumn column)
+    {
+        PalettedBlockStorage[] sections = new PalettedBlockStorage[VERTICAL_CHUNKS];
+
+        for (int y = 0; y < VERTICAL_CHUNKS; y++)
+            sections[y] = Objects.requireNonNull(column.getSection(y)).createSaveSnapshot();
+
+        chunkSaver.save(column.getPosition(), sections);
+    }
+
+    private static @NotNull ExecutorService createMeshingExecutor(int threads)
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), runnable ->
+        {
+            Thread thread = new Thread(runnable, "Chunk Meshing " + threadNumber.incrementAndGet());
+
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+
+            return thread;
+        });
     }
 
     public static @NotNull World create(@NotNull String name)
@@ -298,4 +869,24 @@ public class World extends Component
 
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * A task for an executor backed by a priority queue, lower priority first and, among equal priorities, in the order they were queued.
+     */
+    private record PrioritizedTask(double priority, long sequence, @NotNull Runnable task) implements Runnable, Comparable<PrioritizedTask>
+    {
+        @Override
+        public void run()
+        {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(@NotNull PrioritizedTask other)
+        {
+            int result = Double.compare(priority, other.priority);
+
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
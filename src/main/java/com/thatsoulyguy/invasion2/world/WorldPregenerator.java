@@ -0,0 +1,318 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.annotation.Static;
+import com.thatsoulyguy.invasion2.block.BlockRegistry;
+import com.thatsoulyguy.invasion2.core.Settings;
+import com.thatsoulyguy.invasion2.noise.DensitySampling;
+import com.thatsoulyguy.invasion2.render.MeshData;
+import com.thatsoulyguy.invasion2.render.PackedVertex;
+import com.thatsoulyguy.invasion2.render.Vertex;
+import com.thatsoulyguy.invasion2.util.AssetPath;
+import com.thatsoulyguy.invasion2.util.FileHelper;
+import com.thatsoulyguy.invasion2.world.terraingenerators.CaveTerrainGenerator;
+import com.thatsoulyguy.invasion2.world.terraingenerators.GroundTerrainGenerator;
+import com.thatsoulyguy.invasion2.world.terraingenerators.TreeTerrainGenerator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector2i;
+import org.joml.Vector3i;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates an area of a world without a window, saves it to region files and reports how fast each stage ran.
+ * Useful for filling a world ahead of time and for measuring changes to terrain generation and meshing.
+ * It also prints a checksum of the generated blocks, which must match between runs with the same seed and size
+ * whatever the thread count, since generation is deterministic. With {@code --mesh} it also reports how many bytes the
+ * chunk meshes take on the GPU in the packed vertex format, next to what the same geometry took as unpacked {@link Vertex} data.
+ * <p>
+ * Usage: {@code WorldPregenerator [--seed <seed>] [--size <columns>] [--world <name>] [--output <directory>] [--threads <count>] [--cave-sampling <full|high|low>] [--mesh]}
+ * <p>
+ * Annotates: {@code @Static}
+ */
+@Static
+public class WorldPregenerator
+{
+    private static final String USAGE = "Usage: WorldPregenerator [--seed <seed>] [--size <columns>] [--world <name>] [--output <directory>] [--threads <count>] [--cave-sampling <full|high|low>] [--mesh]";
+
+    private static final double[] PERCENTILES = { 0.5, 0.9, 0.99 };
+
+    private WorldPregenerator() { }
+
+    public static void main(String[] args)
+    {
+        Options options = parseOptions(args);
+
+        if (options == null)
+        {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        BlockRegistry.initialize();
+
+        World world = World.create(options.worldName());
+
+        if (options.seed() != null)
+            world.seed = options.seed();
+
+        CaveTerrainGenerator caveGenerator = TerrainGenerator.create(CaveTerrainGenerator.class);
+
+        caveGenerator.setSampling(options.caveSampling());
+
+        world.addTerrainGenerator(TerrainGenerator.create(GroundTerrainGenerator.class));
+        world.addTerrainGenerator(caveGenerator);
+        world.addTerrainGenerator(TerrainGenerator.create(TreeTerrainGenerator.class));
+
+        int minimum = -options.size() / 2;
+        int maximum = minimum + options.size();
+
+        ChunkGenerationExecutor executor = ChunkGenerationExecutor.create(position -> position.lengthSquared(), options.threads());
+        ChunkGenerationPipeline pipeline = ChunkGenerationPipeline.create(world, executor);
+        ConcurrentMap<String, Queue<Long>> timings = new ConcurrentHashMap<>();
+
+        pipeline.setStageListener((position, status, nanos) -> record(timings, status.name(), nanos));
+
+        System.out.println("Generating " + options.size() + "x" + options.size() + " columns around seed " + world.seed + " on " + executor.getThreadCount() + " threads");
+
+        Map<Vector2i, CompletableFuture<ChunkColumn>> futures = new LinkedHashMap<>();
+
+        long generationStart = System.nanoTime();
+
+        for (int x = minimum; x < maximum; x++)
+        {
+            for (int z = minimum; z < maximum; z++)
+            {
+                Vector2i position = new Vector2i(x, z);
+
+                futures.put(position, pipeline.generate(position));
+            }
+        }
+
+        Map<Vector2i, ChunkColumn> columns = new HashMap<>();
+
+        futures.forEach((position, future) -> columns.put(position, future.join()));
+
+        long generationNanos = System.nanoTime() - generationStart;
+
+        pipeline.discard(position -> false);
+
+        long meshingNanos = 0;
+
+        LongAdder meshedChunks = new LongAdder();
+        LongAdder vertexCount = new LongAdder();
+        LongAdder indexCount = new LongAdder();
+
+        if (options.mesh())
+        {
+            TextureAtlas textureAtlas = TextureAtlas.createHeadless("blocks", AssetPath.create("invasion2", "texture/block/"));
+            List<CompletableFuture<?>> meshes = new ArrayList<>();
+
+            long meshingStart = System.nanoTime();
+
+            for (ChunkColumn column : columns.values())
+            {
+                for (int y = 0; y < World.VERTICAL_CHUNKS; y++)
+                {
+                    Chunk chunk = Objects.requireNonNull(column.getSection(y));
+
+                    meshes.add(executor.submit(column.getPosition(), () ->
+                    {
+                        long start = System.nanoTime();
+
+                        ChunkSnapshot snapshot = ChunkSnapshot.create(chunk, offset -> getChunk(columns, new Vector3i(chunk.getPosition()).add(offset)));
+
+                        MeshData data = ChunkMesher.build(snapshot, textureAtlas, Settings.GREEDY_MESHING.getValue(), Settings.BAKED_AMBIENT_OCCLUSION.getValue(), new ArrayList<>());
+
+                        record(timings, "MESH", System.nanoTime() - start);
+
+                        if (!data.isEmpty())
+                        {
+                            meshedChunks.increment();
+                            vertexCount.add(data.getVertexCount());
+                            indexCount.add(data.getIndexCount());
+                        }
+
+                        return null;
+                    }));
+                }
+            }
+
+            CompletableFuture.allOf(meshes.toArray(CompletableFuture[]::new)).join();
+
+            meshingNanos = System.nanoTime() - meshingStart;
+        }
+
+        executor.shutdown(1, TimeUnit.MINUTES);
+
+        Path directory = options.output() != null ? Path.of(options.output()) : Path.of(FileHelper.getPersistentDataPath("Invasion2"), options.worldName(), "region");
+        ChunkSaver chunkSaver = ChunkSaver.create(RegionStorage.create(directory));
+
+        long savingStart = System.nanoTime();
+
+        columns.forEach((position, column) -> chunkSaver.save(position, World.getBlockStorage(column)));
+        chunkSaver.close();
+
+        long savingNanos = System.nanoTime() - savingStart;
+
+        int chunkCount = columns.size() * World.VERTICAL_CHUNKS;
+
+        System.out.println();
+        printThroughput("Generation", columns.size(), chunkCount, generationNanos);
+
+        if (options.mesh())
+            printThroughput("Meshing", columns.size(), chunkCount, meshingNanos);
+
+        printThroughput("Saving", columns.size(), chunkCount, savingNanos);
+
+        System.out.println();
+        System.out.printf("%-10s %8s %10s %10s %10s %10s%n", "Stage", "Count", "p50 ms", "p90 ms", "p99 ms", "Max ms");
+
+        for (ChunkStatus status : ChunkStatus.values())
+            printLatencies(status.name(), timings.get(status.name()));
+
+        printLatencies("MESH", timings.get("MESH"));
+
+        if (options.mesh())
+        {
+            System.out.println();
+            printMeshMemory(meshedChunks.sum(), vertexCount.sum(), indexCount.sum());
+        }
+
+        System.out.println();
+        System.out.printf("Checksum %016x%n", getChecksum(columns));
+        System.out.println("Saved to " + directory.toAbsolutePath());
+    }
+
+    /**
+     * Hashes every block of the columns, in order of position.
+     */
+    private static long getChecksum(@NotNull Map<Vector2i, ChunkColumn> columns)
+    {
+        List<Vector2i> positions = new ArrayList<>(columns.keySet());
+
+        positions.sort(Comparator.comparingInt((Vector2i position) -> position.x).thenComparingInt(position -> position.y));
+
+        long result = 0;
+
+        for (Vector2i position : positions)
+        {
+            for (PalettedBlockStorage section : World.getBlockStorage(columns.get(position)))
+            {
+                for (int i = 0; i < PalettedBlockStorage.VOLUME; i++)
+                    result = result * 31 + section.get(i);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Looks up a generated chunk by its position, for the neighbors of a chunk being meshed.
+     */
+    private static @Nullable Chunk getChunk(@NotNull Map<Vector2i, ChunkColumn> columns, @NotNull Vector3i chunkPosition)
+    {
+        if (chunkPosition.y < 0 || chunkPosition.y >= World.VERTICAL_CHUNKS)
+            return null;
+
+        ChunkColumn column = columns.get(new Vector2i(chunkPosition.x, chunkPosition.z));
+
+        return column != null ? column.getSection(chunkPosition.y) : null;
+    }
+
+    private static void record(@NotNull ConcurrentMap<String, Queue<Long>> timings, @NotNull String stage, long nanos)
+    {
+        timings.computeIfAbsent(stage, key -> new ConcurrentLinkedQueue<>()).add(nanos);
+    }
+
+    private static void printThroughput(@NotNull String name, int columns, int chunks, long nanos)
+    {
+        double seconds = nanos / 1_000_000_000.0;
+
+        System.out.printf("%-10s %8.2f s %10.1f columns/s %10.1f chunks/s%n", name, seconds, columns / seconds, chunks / seconds);
+    }
+
+    /**
+     * Prints the average GPU memory of a chunk with faces, packed and as it would be with unpacked vertices. Indices are 4 bytes either way.
+     */
+    private static void printMeshMemory(long chunks, long vertices, long indices)
+    {
+        if (chunks == 0)
+            return;
+
+        double packedVertexBytes = (double) vertices * PackedVertex.BYTES / chunks;
+        double unpackedVertexBytes = (double) vertices * Vertex.BYTES / chunks;
+        double indexBytes = (double) indices * Integer.BYTES / chunks;
+
+        System.out.printf("%-10s %8s %14s %14s %14s%n", "Mesh", "Chunks", "Vertex KB", "Index KB", "Total KB");
+        System.out.printf("%-10s %8d %14.2f %14.2f %14.2f%n", "Packed", chunks, packedVertexBytes / 1024, indexBytes / 1024, (packedVertexBytes + indexBytes) / 1024);
+        System.out.printf("%-10s %8d %14.2f %14.2f %14.2f%n", "Unpacked", chunks, unpackedVertexBytes / 1024, indexBytes / 1024, (unpackedVertexBytes + indexBytes) / 1024);
+    }
+
+    private static void printLatencies(@NotNull String name, @Nullable Queue<Long> timings)
+    {
+        if (timings == null || timings.isEmpty())
+            return;
+
+        long[] sorted = timings.stream().mapToLong(Long::longValue).sorted().toArray();
+
+        System.out.printf("%-10s %8d", name, sorted.length);
+
+        for (double percentile : PERCENTILES)
+            System.out.printf(" %10.3f", sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1_000_000.0);
+
+        System.out.printf(" %10.3f%n", sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static @Nullable Options parseOptions(String @NotNull [] args)
+    {
+        Long seed = null;
+        int size = 32;
+        String worldName = "pregenerated";
+        String output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        DensitySampling caveSampling = DensitySampling.LOW;
+        boolean mesh = false;
+
+        try
+        {
+            for (int i = 0; i < args.length; i++)
+            {
+                switch (args[i])
+                {
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--size" -> size = Integer.parseInt(args[++i]);
+                    case "--world" -> worldName = args[++i];
+                    case "--output" -> output = args[++i];
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--cave-sampling" -> caveSampling = DensitySampling.valueOf(args[++i].toUpperCase());
+                    case "--mesh" -> mesh = true;
+                    default ->
+                    {
+                        System.err.println("Unknown option: " + args[i]);
+                        return null;
+                    }
+                }
+            }
+        }
+        catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception)
+        {
+            System.err.println("Bad option: " + exception.getMessage());
+            return null;
+        }
+
+        if (size < 1 || threads < 1)
+            return null;
+
+        return new Options(seed, size, worldName, output, threads, caveSampling, mesh);
+    }
+
+    private record Options(@Nullable Long seed, int size, @NotNull String worldName, @Nullable String output, int threads, @NotNull DensitySampling caveSampling, boolean mesh) { }
+}
@@ -1,42 +1,92 @@
 package com.thatsoulyguy.invasion2.world.terraingenerators;
 
 import com.thatsoulyguy.invasion2.block.BlockRegistry;
+import com.thatsoulyguy.invasion2.noise.DensitySampler;
+import com.thatsoulyguy.invasion2.noise.DensitySampling;
 import com.thatsoulyguy.invasion2.noise.OpenSimplex2;
 import com.thatsoulyguy.invasion2.world.Chunk;
+import com.thatsoulyguy.invasion2.world.ChunkStatus;
+import com.thatsoulyguy.invasion2.world.GenerationMask;
 import com.thatsoulyguy.invasion2.world.TerrainGenerator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Vector3i;
 
 public class CaveTerrainGenerator extends TerrainGenerator
 {
-    private static final double CAVE_THRESHOLD = 0.5;
-    private static final double CAVE_SCALE = 0.045;
+    /**
+     * Blocks whose cave noise is above this are carved out.
+     */
+    public static final double CAVE_THRESHOLD = 0.5;
+
+    /**
+     * The size of a block in cave noise space.
+     */
+    public static final double CAVE_SCALE = 0.045;
+
+    /**
+     * The noise of the section being carved, per generation thread.
+     */
+    private static final ThreadLocal<float[]> NOISE = ThreadLocal.withInitial(() -> new float[Chunk.SIZE * Chunk.SIZE * Chunk.SIZE]);
+
+    /**
+     * How densely the cave noise is sampled. It changes the shape of the caves, so it's saved with the world's generators
+     * and only set before the world generates anything. Null for generators saved before it was kept here, which sampled every block.
+     */
+    private @Nullable DensitySampling sampling = DensitySampling.LOW;
+
+    @Override
+    public @NotNull ChunkStatus getStage()
+    {
+        return ChunkStatus.CARVERS;
+    }
+
+    /**
+     * Caves only carve out solid blocks, so the sections of air above the terrain aren't sampled.
+     */
+    @Override
+    public @NotNull GenerationMask getMask()
+    {
+        return GenerationMask.SOLID;
+    }
 
     @Override
     public void generateBlocks(short[][][] blocks, Vector3i chunkPosition)
     {
-        int worldXOffset = chunkPosition.x * Chunk.SIZE;
-        int worldZOffset = chunkPosition.z * Chunk.SIZE;
-        int worldYOffset = chunkPosition.y * Chunk.SIZE;
+        float[] caveNoise = NOISE.get();
+
+        long seed = getSeed();
+
+        DensitySampler.sample((originX, originY, originZ, step, width, height, depth, output) -> OpenSimplex2.noise3_ImproveXZ_Grid(seed, originX, originY, originZ, step, width, height, depth, output),
+                chunkPosition.x * Chunk.SIZE * CAVE_SCALE,
+                chunkPosition.y * Chunk.SIZE * CAVE_SCALE,
+                chunkPosition.z * Chunk.SIZE * CAVE_SCALE,
+                CAVE_SCALE, Chunk.SIZE, getSampling(), caveNoise);
 
         for (int x = 0; x < Chunk.SIZE; x++)
         {
-            for (int z = 0; z < Chunk.SIZE; z++)
+            for (int y = 0; y < Chunk.SIZE; y++)
             {
-                for (int y = 0; y < Chunk.SIZE; y++)
+                for (int z = 0; z < Chunk.SIZE; z++)
                 {
-                    int worldX = worldXOffset + x;
-                    int worldY = worldYOffset + y;
-                    int worldZ = worldZOffset + z;
-
-                    double caveNoise = OpenSimplex2.noise3_ImproveXZ(getSeed(),
-                            worldX * CAVE_SCALE,
-                            worldY * CAVE_SCALE,
-                            worldZ * CAVE_SCALE);
-
-                    if (caveNoise > CAVE_THRESHOLD)
+                    if (caveNoise[(x * Chunk.SIZE + y) * Chunk.SIZE + z] > CAVE_THRESHOLD)
                         blocks[x][y][z] = BlockRegistry.BLOCK_AIR.getId();
                 }
             }
         }
     }
-}
\ No newline at end of file
+
+    public @NotNull DensitySampling getSampling()
+    {
+        return sampling != null ? sampling : DensitySampling.FULL;
+    }
+
+    /**
+     * Sets how densely the cave noise is sampled. Must be called before the world generates anything, or caves will
+     * change shape at the border between columns generated before and after.
+     */
+    public void setSampling(@NotNull DensitySampling sampling)
+    {
+        this.sampling = sampling;
+    }
+}
@@ -3,31 +3,69 @@ package com.thatsoulyguy.invasion2.world.terraingenerators;
 import com.thatsoulyguy.invasion2.block.BlockRegistry;
 import com.thatsoulyguy.invasion2.noise.OpenSimplex2;
 import com.thatsoulyguy.invasion2.world.Chunk;
+import com.thatsoulyguy.invasion2.world.ChunkColumn;
+import com.thatsoulyguy.invasion2.world.HeightmapCache;
 import com.thatsoulyguy.invasion2.world.TerrainGenerator;
 import com.thatsoulyguy.invasion2.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector2i;
 import org.joml.Vector3i;
 
 public class GroundTerrainGenerator extends TerrainGenerator
 {
+    private static final double HILL_THRESHOLD = 0.7;
+
     public int getHeight(int x, int z)
     {
-        double flatnessControl = OpenSimplex2.noise2(getSeed() + 300, x * getScale() * 0.1, z * getScale() * 0.1);
-        flatnessControl = (flatnessControl + 1) / 2.0;
+        double flatnessNoise = OpenSimplex2.noise2(getSeed() + 300, x * getScale() * 0.1, z * getScale() * 0.1);
+        double baseNoise = OpenSimplex2.noise2(getSeed(), x * getScale(), z * getScale());
+
+        return getHeight(x, z, flatnessNoise, baseNoise);
+    }
 
-        double hillThreshold = 0.7;
+    /**
+     * Computes the heightmap of a column, sampling the flatness and base noise for the whole column in one grid each.
+     *
+     * @param position The x and z position of the column in chunk coordinates
+     * @return The heightmap, indexed by x + z * {@link Chunk#SIZE} with x and z in chunk space
+     */
+    public int @NotNull [] getHeightmap(@NotNull Vector2i position)
+    {
+        int worldX = position.x * Chunk.SIZE;
+        int worldZ = position.y * Chunk.SIZE;
+
+        float[] flatnessNoise = new float[Chunk.SIZE * Chunk.SIZE];
+        float[] baseNoise = new float[Chunk.SIZE * Chunk.SIZE];
+
+        OpenSimplex2.noise2_Grid(getSeed() + 300, worldX * getScale() * 0.1, worldZ * getScale() * 0.1, getScale() * 0.1, Chunk.SIZE, Chunk.SIZE, flatnessNoise);
+        OpenSimplex2.noise2_Grid(getSeed(), worldX * getScale(), worldZ * getScale(), getScale(), Chunk.SIZE, Chunk.SIZE, baseNoise);
+
+        int[] result = new int[Chunk.SIZE * Chunk.SIZE];
+
+        for (int i = 0; i < result.length; i++)
+            result[i] = getHeight(worldX + i % Chunk.SIZE, worldZ + i / Chunk.SIZE, flatnessNoise[i], baseNoise[i]);
+
+        return result;
+    }
+
+    /**
+     * Combines the noise at a spot into a height, sampling the hill noise only where the terrain is hilly.
+     */
+    private int getHeight(int x, int z, double flatnessNoise, double baseNoise)
+    {
+        double flatnessControl = (flatnessNoise + 1) / 2.0;
 
-        double baseNoise = OpenSimplex2.noise2(getSeed(), x * getScale(), z * getScale());
         baseNoise = (baseNoise + 1) / 2.0;
 
         double hillNoise = 0;
 
-        if (flatnessControl > hillThreshold)
+        if (flatnessControl > HILL_THRESHOLD)
         {
             hillNoise = OpenSimplex2.noise2(getSeed() + 100, x * getScale() * 0.5, z * getScale() * 0.5);
             hillNoise = (hillNoise + 1) / 2.0;
         }
 
-        double combinedNoise = flatnessControl <= hillThreshold
+        double combinedNoise = flatnessControl <= HILL_THRESHOLD
                 ? baseNoise * 0.2
                 : (0.3 * baseNoise + 0.7 * hillNoise);
 
@@ -43,18 +81,27 @@ public class GroundTerrainGenerator extends TerrainGenerator
     @Override
     public void generateBlocks(short[][][] blocks, Vector3i chunkPosition)
     {
-        int worldXOffset = chunkPosition.x * Chunk.SIZE;
-        int worldZOffset = chunkPosition.z * Chunk.SIZE;
+        generateBlocks(blocks, chunkPosition, ChunkColumn.create(new Vector2i(chunkPosition.x, chunkPosition.z)));
+    }
+
+    /**
+     * Fills the section using the column's heightmap, so the height noise is only sampled once per column.
+     * The heightmap comes from the {@link #getHeightmapCache() heightmap cache} when there is one.
+     */
+    @Override
+    public void generateBlocks(short[][][] blocks, Vector3i chunkPosition, ChunkColumn column)
+    {
         int worldYOffset = chunkPosition.y * Chunk.SIZE;
 
+        HeightmapCache heightmapCache = getHeightmapCache();
+
+        int[] heightmap = heightmapCache != null ? column.getHeightmap(heightmapCache, this::getHeightmap) : column.getHeightmap(this::getHeightmap);
+
         for (int x = 0; x < Chunk.SIZE; x++)
         {
             for (int z = 0; z < Chunk.SIZE; z++)
             {
-                int worldX = worldXOffset + x;
-                int worldZ = worldZOffset + z;
-
-                int terrainHeight = getHeight(worldX, worldZ);
+                int terrainHeight = heightmap[x + z * Chunk.SIZE];
 
                 for (int y = 0; y < Chunk.SIZE; y++)
                 {
@@ -75,4 +122,4 @@ public class GroundTerrainGenerator extends TerrainGenerator
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -2,67 +2,122 @@ package com.thatsoulyguy.invasion2.world.terraingenerators;
 
 import com.thatsoulyguy.invasion2.block.BlockRegistry;
 import com.thatsoulyguy.invasion2.world.Chunk;
+import com.thatsoulyguy.invasion2.world.ChunkStatus;
+import com.thatsoulyguy.invasion2.world.GenerationRegion;
+import com.thatsoulyguy.invasion2.world.HeightmapCache;
+import com.thatsoulyguy.invasion2.world.PositionalRandom;
 import com.thatsoulyguy.invasion2.world.TerrainGenerator;
-import org.joml.Random;
+import com.thatsoulyguy.invasion2.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector2i;
 import org.joml.Vector3i;
 
+/**
+ * Places trees on grass. Whether a tree grows at a spot depends only on the seed and the spot, through {@link PositionalRandom}, so a column places the parts of
+ * its neighbors' trees that reach into it as well as its own, and trees come out whole across column borders.
+ * Trees only grow into air (logs also into leaves), so the order trees are placed in doesn't matter.
+ */
 public class TreeTerrainGenerator extends TerrainGenerator
 {
     private static final int TREE_HEIGHT = 5;
     private static final int LEAVES_RADIUS = 2;
 
+    /**
+     * One in this many grass blocks grows a tree.
+     */
+    private static final int TREE_CHANCE = 50;
+
+    private static final long TREE_SALT = 0x7472656573L;
+
+    @Override
+    public @NotNull ChunkStatus getStage()
+    {
+        return ChunkStatus.FEATURES;
+    }
+
+    /**
+     * Trees need the whole column and its neighbors, so this only places trees when called through {@link #generate(GenerationRegion)}.
+     */
+    @Override
+    public void generateBlocks(short[][][] blocks, Vector3i chunkPosition) { }
+
     @Override
-    public void generateBlocks(short[][][] blocks, Vector3i chunkPosition)
+    public void generate(@NotNull GenerationRegion region)
     {
-        for (int x = 0; x < Chunk.SIZE; x++)
+        Vector2i position = region.getPosition();
+
+        int minX = position.x * Chunk.SIZE - LEAVES_RADIUS;
+        int minZ = position.y * Chunk.SIZE - LEAVES_RADIUS;
+        int maxX = (position.x + 1) * Chunk.SIZE + LEAVES_RADIUS;
+        int maxZ = (position.y + 1) * Chunk.SIZE + LEAVES_RADIUS;
+
+        for (int x = minX; x < maxX; x++)
         {
-            for (int z = 0; z < Chunk.SIZE; z++)
+            for (int z = minZ; z < maxZ; z++)
             {
-                int terrainHeight = -1;
+                if (!PositionalRandom.oneIn(getSeed(), x, z, TREE_SALT, TREE_CHANCE))
+                    continue;
 
-                for (int y = Chunk.SIZE - 1; y >= 0; y--)
-                {
-                    if (blocks[x][y][z] != BlockRegistry.BLOCK_AIR.getId())
-                    {
-                        terrainHeight = y;
-                        break;
-                    }
-                }
+                int groundY = getGroundY(region, x, z);
 
-                if (terrainHeight >= 0 && blocks[x][terrainHeight][z] == BlockRegistry.BLOCK_GRASS.getId())
-                {
-                    if (new Random().nextInt(50) == 4)
-                        generateTree(blocks, x, terrainHeight + 1, z);
-                }
+                if (groundY >= 0 && region.getBlock(x, groundY, z) == BlockRegistry.BLOCK_GRASS.getId())
+                    generateTree(region, x, groundY + 1, z);
             }
         }
     }
 
-    private void generateTree(short[][][] blocks, int x, int y, int z)
+    /**
+     * Finds the highest block at an x and z that isn't air or part of a tree, so the result is the same whether or not a
+     * neighbor has placed its trees yet. Starts below the cached terrain height when there is one, since only trees grow above it.
+     *
+     * @return The block's y position, or -1 if there is none
+     */
+    private int getGroundY(@NotNull GenerationRegion region, int x, int z)
     {
-        if (y + TREE_HEIGHT + LEAVES_RADIUS >= Chunk.SIZE)
+        HeightmapCache heightmapCache = getHeightmapCache();
+
+        int top = heightmapCache != null ? heightmapCache.getHeight(x, z) : Integer.MIN_VALUE;
+
+        if (top == Integer.MIN_VALUE || top > World.WORLD_HEIGHT)
+            top = World.WORLD_HEIGHT;
+
+        for (int y = top - 1; y >= 0; y--)
+        {
+            short block = region.getBlock(x, y, z);
+
+            if (block != BlockRegistry.BLOCK_AIR.getId() && block != BlockRegistry.BLOCK_LOG_OAK.getId() && block != BlockRegistry.BLOCK_LEAVES.getId())
+                return y;
+        }
+
+        return -1;
+    }
+
+    private void generateTree(@NotNull GenerationRegion region, int x, int y, int z)
+    {
+        if (y + TREE_HEIGHT >= World.WORLD_HEIGHT)
             return;
 
         for (int i = 0; i < TREE_HEIGHT; i++)
-            blocks[x][y + i][z] = BlockRegistry.BLOCK_LOG_OAK.getId();
+        {
+            short block = region.getBlock(x, y + i, z);
+
+            if (block == BlockRegistry.BLOCK_AIR.getId() || block == BlockRegistry.BLOCK_LEAVES.getId())
+                region.setBlock(x, y + i, z, BlockRegistry.BLOCK_LOG_OAK.getId());
+        }
 
         for (int dx = -LEAVES_RADIUS; dx <= LEAVES_RADIUS; dx++)
         {
             for (int dz = -LEAVES_RADIUS; dz <= LEAVES_RADIUS; dz++)
             {
+                if (Math.abs(dx) + Math.abs(dz) > LEAVES_RADIUS)
+                    continue;
+
                 for (int dy = TREE_HEIGHT - 2; dy <= TREE_HEIGHT; dy++)
                 {
-                    int leafX = x + dx;
-                    int leafY = y + dy;
-                    int leafZ = z + dz;
-
-                    if (leafX >= 0 && leafX < Chunk.SIZE && leafY >= 0 && leafY < Chunk.SIZE && leafZ >= 0 && leafZ < Chunk.SIZE)
-                    {
-                        if (Math.abs(dx) + Math.abs(dz) <= LEAVES_RADIUS)
-                            blocks[leafX][leafY][leafZ] = BlockRegistry.BLOCK_LEAVES.getId();
-                    }
+                    if (region.getBlock(x + dx, y + dy, z + dz) == BlockRegistry.BLOCK_AIR.getId())
+                        region.setBlock(x + dx, y + dy, z + dz, BlockRegistry.BLOCK_LEAVES.getId());
                 }
             }
         }
     }
-}
\ No newline at end of file
+}
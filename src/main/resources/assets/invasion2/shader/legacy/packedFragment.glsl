@@ -0,0 +1,20 @@
+#version 410 core
+
+out vec4 FragColor;
+
+in vec3 color;
+in vec3 normal;
+in vec2 uvs;
+in vec4 tileBounds;
+
+uniform sampler2D diffuse;
+
+void main()
+{
+    vec2 atlasUVs = uvs;
+
+    if (tileBounds.z > 0.0)
+        atlasUVs = tileBounds.xy + fract(uvs) * tileBounds.zw;
+
+    FragColor = texture(diffuse, atlasUVs) * vec4(color, 1.0);
+}
\ No newline at end of file
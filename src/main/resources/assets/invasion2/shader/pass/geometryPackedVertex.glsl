@@ -0,0 +1,39 @@
+#version 410 core
+
+layout(location = 0) in uvec2 packedIn;
+
+uniform mat4 model;
+uniform mat4 view;
+uniform mat4 projection;
+
+uniform samplerBuffer packedTables;
+
+out vec3 fragmentPosition;
+out vec3 normal;
+out vec3 color;
+out vec2 uvs;
+out vec4 tileBounds;
+
+const int TILE_OFFSET = 64;
+
+const vec3 NORMALS[6] = vec3[](vec3(0, 0, 1), vec3(0, 0, -1), vec3(0, 1, 0), vec3(0, -1, 0), vec3(1, 0, 0), vec3(-1, 0, 0));
+const float AMBIENT_OCCLUSION_BRIGHTNESS[4] = float[](0.5, 0.7, 0.85, 1.0);
+
+void main()
+{
+    uint first = packedIn.x;
+    uint second = packedIn.y;
+
+    vec3 positionIn = vec3(float(first & 31u), float((first >> 5u) & 31u), float((first >> 10u) & 31u));
+    vec3 normalIn = NORMALS[(first >> 15u) & 7u];
+
+    vec4 viewPosition = view * model * vec4(positionIn, 1.0);
+
+    gl_Position = projection * viewPosition;
+
+    fragmentPosition = viewPosition.xyz;
+    normal = transpose(inverse(mat3(view * model))) * normalIn;
+    color = texelFetch(packedTables, int((second >> 16u) & 63u)).rgb * AMBIENT_OCCLUSION_BRIGHTNESS[(second >> 22u) & 3u];
+    uvs = vec2(float((first >> 18u) & 63u), float((first >> 24u) & 63u)) - 16.0;
+    tileBounds = texelFetch(packedTables, TILE_OFFSET + int(second & 65535u));
+}
@@ -8,11 +8,12 @@ uniform sampler2D gPosition;
 uniform sampler2D gNormal;
 uniform sampler2D gAlbedo;
 uniform sampler2D ssao;
+uniform int useSSAO;
 
 void main()
 {
     vec3 albedo = texture(gAlbedo, TexCoords).rgb;
-    float ambientOcclusion = texture(ssao, TexCoords).r;
+    float ambientOcclusion = useSSAO == 1 ? texture(ssao, TexCoords).r : 1.0;
 
     vec3 ambient = albedo * ambientOcclusion;
 
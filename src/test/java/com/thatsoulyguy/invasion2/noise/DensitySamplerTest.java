@@ -0,0 +1,134 @@
+package com.thatsoulyguy.invasion2.noise;
+
+import com.thatsoulyguy.invasion2.world.Chunk;
+import com.thatsoulyguy.invasion2.world.terraingenerators.CaveTerrainGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares every {@link DensitySampling} with full sampling on the cave noise, over chunks spread through all three axes.
+ */
+public class DensitySamplerTest
+{
+    private static final long SEED = 354576879657L;
+
+    private static final int VOLUME = Chunk.SIZE * Chunk.SIZE * Chunk.SIZE;
+
+    /**
+     * Chunk positions on both sides of zero along every axis, near the origin and far from it.
+     */
+    private static final int[][] CHUNKS =
+    {
+        { 0, 0, 0 }, { 1, 2, 3 }, { -1, 0, -1 }, { -7, 5, 12 }, { 31, 9, -40 }, { -250, 3, 117 },
+        { 4096, 15, -4096 }, { -100_000, 7, 55_555 }, { 17, -3, 8 }, { -33, 11, -29 }, { 600, 1, 600 }, { -2, 14, 90 }
+    };
+
+    @Test
+    public void fullSamplingIsExact()
+    {
+        Error error = measure(DensitySampling.FULL);
+
+        assertEquals(0.0, error.max(), 0.0, "Full sampling must match the noise itself");
+        assertEquals(0, error.flipped(), "Full sampling must carve the same caves");
+    }
+
+    @Test
+    public void highSamplingIsCloseToFull()
+    {
+        assertWithin(measure(DensitySampling.HIGH), 0.1, 0.015, 0.01);
+    }
+
+    @Test
+    public void lowSamplingIsCloseToFull()
+    {
+        assertWithin(measure(DensitySampling.LOW), 0.3, 0.06, 0.05);
+    }
+
+    @Test
+    public void interpolatedSamplingMatchesLatticePoints()
+    {
+        for (DensitySampling sampling : DensitySampling.values())
+        {
+            float[] full = new float[VOLUME];
+            float[] sampled = new float[VOLUME];
+
+            for (int[] chunk : CHUNKS)
+            {
+                sample(chunk, DensitySampling.FULL, full);
+                sample(chunk, sampling, sampled);
+
+                for (int x = 0; x < Chunk.SIZE; x += sampling.getSpacing())
+                {
+                    for (int y = 0; y < Chunk.SIZE; y += sampling.getSpacing())
+                    {
+                        for (int z = 0; z < Chunk.SIZE; z += sampling.getSpacing())
+                        {
+                            int index = (x * Chunk.SIZE + y) * Chunk.SIZE + z;
+
+                            assertEquals(full[index], sampled[index], 1e-6f, sampling + " lattice point " + x + ", " + y + ", " + z);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts the error of a sampling is within bounds.
+     *
+     * @param maxError The most any block may be off
+     * @param meanError The most blocks may be off on average
+     * @param flippedFraction The most of the blocks that may end up on the other side of the cave threshold
+     */
+    private static void assertWithin(Error error, double maxError, double meanError, double flippedFraction)
+    {
+        String message = error.sampling() + ": max error " + error.max() + ", mean error " + error.mean() + ", " + error.flipped() + " of " + error.samples() + " blocks flipped";
+
+        assertTrue(error.max() <= maxError, message);
+        assertTrue(error.mean() <= meanError, message);
+        assertTrue(error.flipped() <= flippedFraction * error.samples(), message);
+    }
+
+    private static Error measure(DensitySampling sampling)
+    {
+        float[] full = new float[VOLUME];
+        float[] sampled = new float[VOLUME];
+
+        double max = 0;
+        double total = 0;
+        int flipped = 0;
+
+        for (int[] chunk : CHUNKS)
+        {
+            sample(chunk, DensitySampling.FULL, full);
+            sample(chunk, sampling, sampled);
+
+            for (int i = 0; i < VOLUME; i++)
+            {
+                double error = Math.abs(full[i] - sampled[i]);
+
+                max = Math.max(max, error);
+                total += error;
+
+                if ((full[i] > CaveTerrainGenerator.CAVE_THRESHOLD) != (sampled[i] > CaveTerrainGenerator.CAVE_THRESHOLD))
+                    flipped++;
+            }
+        }
+
+        int samples = CHUNKS.length * VOLUME;
+
+        return new Error(sampling, max, total / samples, flipped, samples);
+    }
+
+    private static void sample(int[] chunk, DensitySampling sampling, float[] output)
+    {
+        double blockSize = CaveTerrainGenerator.CAVE_SCALE;
+
+        DensitySampler.sample((originX, originY, originZ, step, width, height, depth, grid) -> OpenSimplex2.noise3_ImproveXZ_Grid(SEED, originX, originY, originZ, step, width, height, depth, grid),
+                chunk[0] * Chunk.SIZE * blockSize, chunk[1] * Chunk.SIZE * blockSize, chunk[2] * Chunk.SIZE * blockSize, blockSize, Chunk.SIZE, sampling, output);
+    }
+
+    private record Error(DensitySampling sampling, double max, double mean, int flipped, int samples) { }
+}
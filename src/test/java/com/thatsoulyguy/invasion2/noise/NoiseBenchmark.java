@@ -0,0 +1,193 @@
+package com.thatsoulyguy.invasion2.noise;
+
+import com.thatsoulyguy.invasion2.annotation.Static;
+import com.thatsoulyguy.invasion2.world.terraingenerators.CaveTerrainGenerator;
+
+/**
+ * Times the grid entry points of {@link OpenSimplex2} against calling the scalar ones per sample, on grids the size
+ * of a column's heightmap and of a chunk, and reports how far the two drift apart. Then times each {@link DensitySampling}
+ * on the cave noise and reports its interpolation error against full sampling; {@link DensitySamplerTest} holds the bounds.
+ * <p>
+ * Usage: {@code NoiseBenchmark [iterations]}
+ * <p>
+ * Annotates: {@code @Static}
+ */
+@Static
+public class NoiseBenchmark
+{
+    private static final long SEED = 354576879657L;
+
+    private static final int SIZE = 16;
+
+    private static final double SCALE_2D = 0.006;
+    private static final double SCALE_3D = CaveTerrainGenerator.CAVE_SCALE;
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+
+    /**
+     * Keeps the JIT from dropping the scalar loops.
+     */
+    private static volatile float sink;
+
+    private NoiseBenchmark() { }
+
+    public static void main(String[] args)
+    {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        float[] scalar2 = new float[SIZE * SIZE];
+        float[] grid2 = new float[SIZE * SIZE];
+        float[] scalar3 = new float[SIZE * SIZE * SIZE];
+        float[] grid3 = new float[SIZE * SIZE * SIZE];
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+        {
+            scalar2(i, scalar2);
+            grid2(i, grid2);
+            scalar3(i, scalar3);
+            grid3(i, grid3);
+        }
+
+        System.out.printf("%-12s %14s %14s %10s %16s%n", "Grid", "Scalar ns", "Grid ns", "Speedup", "Max difference");
+
+        report("2D 16x16", iterations, scalar2, grid2, NoiseBenchmark::scalar2, NoiseBenchmark::grid2);
+        report("3D 16x16x16", Math.max(1, iterations / SIZE), scalar3, grid3, NoiseBenchmark::scalar3, NoiseBenchmark::grid3);
+
+        System.out.println();
+        System.out.printf("%-12s %14s %14s %14s %14s%n", "Sampling", "Chunk us", "Max error", "Mean error", "Caves flipped");
+
+        for (DensitySampling sampling : DensitySampling.values())
+            reportSampling(sampling, Math.max(1, iterations / SIZE), grid3, scalar3);
+    }
+
+    /**
+     * Times a density sampling on the cave noise and compares it with full sampling.
+     */
+    private static void reportSampling(DensitySampling sampling, int iterations, float[] full, float[] sampled)
+    {
+        for (int i = 0; i < WARMUP_ITERATIONS / SIZE; i++)
+            sample(i, sampling, sampled);
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++)
+        {
+            sample(i, sampling, sampled);
+            sink = sampled[i % sampled.length];
+        }
+
+        long nanos = System.nanoTime() - start;
+
+        double maxError = 0;
+        double totalError = 0;
+        long flipped = 0;
+
+        for (int i = 0; i < iterations; i++)
+        {
+            grid3(i, full);
+            sample(i, sampling, sampled);
+
+            for (int j = 0; j < full.length; j++)
+            {
+                double error = Math.abs(full[j] - sampled[j]);
+
+                maxError = Math.max(maxError, error);
+                totalError += error;
+
+                if ((full[j] > CaveTerrainGenerator.CAVE_THRESHOLD) != (sampled[j] > CaveTerrainGenerator.CAVE_THRESHOLD))
+                    flipped++;
+            }
+        }
+
+        double samples = (double) iterations * full.length;
+
+        System.out.printf("%-12s %14.2f %14.4f %14.4f %13.3f%%%n", sampling, nanos / 1000.0 / iterations, maxError, totalError / samples, flipped / samples * 100);
+    }
+
+    private static void report(String name, int iterations, float[] scalar, float[] grid, Fill scalarFill, Fill gridFill)
+    {
+        long scalarNanos = time(iterations, scalar, scalarFill);
+        long gridNanos = time(iterations, grid, gridFill);
+
+        double maxDifference = 0;
+
+        for (int i = 0; i < iterations; i++)
+        {
+            scalarFill.fill(i, scalar);
+            gridFill.fill(i, grid);
+
+            for (int j = 0; j < scalar.length; j++)
+                maxDifference = Math.max(maxDifference, Math.abs(scalar[j] - grid[j]));
+        }
+
+        double samples = (double) iterations * scalar.length;
+
+        System.out.printf("%-12s %14.2f %14.2f %9.2fx %16.3e%n", name, scalarNanos / samples, gridNanos / samples, (double) scalarNanos / gridNanos, maxDifference);
+    }
+
+    private static long time(int iterations, float[] output, Fill fill)
+    {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++)
+        {
+            fill.fill(i, output);
+            sink = output[i % output.length];
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Samples the heightmap of column i the way terrain generators did before the grid entry points.
+     */
+    private static void scalar2(int i, float[] output)
+    {
+        int originX = i * SIZE;
+
+        for (int z = 0; z < SIZE; z++)
+        {
+            for (int x = 0; x < SIZE; x++)
+                output[x + z * SIZE] = OpenSimplex2.noise2(SEED, (originX + x) * SCALE_2D, z * SCALE_2D);
+        }
+    }
+
+    private static void grid2(int i, float[] output)
+    {
+        OpenSimplex2.noise2_Grid(SEED, i * SIZE * SCALE_2D, 0, SCALE_2D, SIZE, SIZE, output);
+    }
+
+    /**
+     * Samples chunk i the way terrain generators did before the grid entry points.
+     */
+    private static void scalar3(int i, float[] output)
+    {
+        int originX = i * SIZE;
+
+        for (int x = 0; x < SIZE; x++)
+        {
+            for (int y = 0; y < SIZE; y++)
+            {
+                for (int z = 0; z < SIZE; z++)
+                    output[(x * SIZE + y) * SIZE + z] = OpenSimplex2.noise3_ImproveXZ(SEED, (originX + x) * SCALE_3D, y * SCALE_3D, z * SCALE_3D);
+            }
+        }
+    }
+
+    private static void grid3(int i, float[] output)
+    {
+        OpenSimplex2.noise3_ImproveXZ_Grid(SEED, i * SIZE * SCALE_3D, 0, 0, SCALE_3D, SIZE, SIZE, SIZE, output);
+    }
+
+    private static void sample(int i, DensitySampling sampling, float[] output)
+    {
+        DensitySampler.sample((originX, originY, originZ, step, width, height, depth, grid) -> OpenSimplex2.noise3_ImproveXZ_Grid(SEED, originX, originY, originZ, step, width, height, depth, grid),
+                i * SIZE * SCALE_3D, 0, 0, SCALE_3D, SIZE, sampling, output);
+    }
+
+    @FunctionalInterface
+    private interface Fill
+    {
+        void fill(int iteration, float[] output);
+    }
+}
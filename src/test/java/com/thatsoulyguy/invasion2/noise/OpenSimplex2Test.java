@@ -0,0 +1,104 @@
+package com.thatsoulyguy.invasion2.noise;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OpenSimplex2Test
+{
+    private static final long SEED = 354576879657L;
+
+    /**
+     * Origins on both sides of zero and across lattice cells, in grid steps.
+     */
+    private static final double[] ORIGINS = { 0, 1, -1, 37.5, -211.25, 4096, -100_000 };
+
+    /**
+     * The terrain scales, a step large enough to cross a cell every sample, and a small one that rarely leaves it.
+     */
+    private static final double[] STEPS = { 0.006, 0.045, 0.18, 1.3, 0.0001 };
+
+    private static final float TOLERANCE = 1e-6f;
+
+    @Test
+    public void grid2MatchesScalarNoise()
+    {
+        for (double step : STEPS)
+        {
+            for (double originX : ORIGINS)
+            {
+                for (double originY : ORIGINS)
+                    assertGrid2(originX * step * 16, originY * step * 16, step, 16, 16);
+            }
+        }
+    }
+
+    @Test
+    public void grid2HandlesUnevenSizes()
+    {
+        assertGrid2(-3.7, 12.1, 0.05, 1, 1);
+        assertGrid2(-3.7, 12.1, 0.05, 17, 3);
+        assertGrid2(-3.7, 12.1, 0.05, 2, 33);
+    }
+
+    @Test
+    public void grid3MatchesScalarNoise()
+    {
+        for (double step : STEPS)
+        {
+            for (int i = 0; i < ORIGINS.length; i++)
+            {
+                double originX = ORIGINS[i] * step * 16;
+                double originY = ORIGINS[(i + 2) % ORIGINS.length] * step * 16;
+                double originZ = ORIGINS[(i + 5) % ORIGINS.length] * step * 16;
+
+                assertGrid3(originX, originY, originZ, step, 16, 16, 16);
+            }
+        }
+    }
+
+    @Test
+    public void grid3HandlesUnevenSizes()
+    {
+        assertGrid3(5.5, -0.25, -17.0, 0.18, 5, 5, 5);
+        assertGrid3(5.5, -0.25, -17.0, 0.18, 1, 9, 2);
+        assertGrid3(5.5, -0.25, -17.0, 0.18, 3, 1, 7);
+    }
+
+    private static void assertGrid2(double originX, double originY, double step, int width, int height)
+    {
+        float[] grid = new float[width * height];
+
+        OpenSimplex2.noise2_Grid(SEED, originX, originY, step, width, height, grid);
+
+        for (int j = 0; j < height; j++)
+        {
+            for (int i = 0; i < width; i++)
+            {
+                float expected = OpenSimplex2.noise2(SEED, originX + i * step, originY + j * step);
+
+                assertEquals(expected, grid[i + j * width], TOLERANCE, "2D sample " + i + ", " + j + " of the grid at " + originX + ", " + originY + " with step " + step);
+            }
+        }
+    }
+
+    private static void assertGrid3(double originX, double originY, double originZ, double step, int width, int height, int depth)
+    {
+        float[] grid = new float[width * height * depth];
+
+        OpenSimplex2.noise3_ImproveXZ_Grid(SEED, originX, originY, originZ, step, width, height, depth, grid);
+
+        for (int i = 0; i < width; i++)
+        {
+            for (int j = 0; j < height; j++)
+            {
+                for (int k = 0; k < depth; k++)
+                {
+                    float expected = OpenSimplex2.noise3_ImproveXZ(SEED, originX + i * step, originY + j * step, originZ + k * step);
+
+                    assertEquals(expected, grid[(i * height + j) * depth + k], TOLERANCE, "3D sample " + i + ", " + j + ", " + k + " of the grid at " + originX + ", " + originY + ", " + originZ + " with step " + step);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.thatsoulyguy.invasion2.render;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PackedVertexTest
+{
+    private static final int[] POSITIONS = { 0, 1, 15, 16, PackedVertex.MAX_POSITION };
+    private static final int[] TILE_COORDINATES = { PackedVertex.MIN_TILE_COORDINATE, -1, 0, 1, 16, PackedVertex.MAX_TILE_COORDINATE };
+    private static final int[] TILES = { 0, 1, PackedVertex.MAX_TILES - 1 };
+    private static final int[] TINTS = { 0, 1, PackedVertex.MAX_TINTS - 1 };
+
+    @Test
+    public void roundTripsEveryFace()
+    {
+        for (int face = 0; face < 6; face++)
+            assertRoundTrip(3, 7, 11, face, 1, 0, 42, 5, 2);
+    }
+
+    @Test
+    public void roundTripsPositionExtremes()
+    {
+        for (int x : POSITIONS)
+        {
+            for (int y : POSITIONS)
+            {
+                for (int z : POSITIONS)
+                    assertRoundTrip(x, y, z, 2, 0, 1, 0, 0, 3);
+            }
+        }
+    }
+
+    @Test
+    public void roundTripsTileCoordinateBounds()
+    {
+        for (int u : TILE_COORDINATES)
+        {
+            for (int v : TILE_COORDINATES)
+                assertRoundTrip(16, 0, 16, 4, u, v, 9, 1, 1);
+        }
+    }
+
+    @Test
+    public void roundTripsTileAndTintBounds()
+    {
+        for (int tile : TILES)
+        {
+            for (int tint : TINTS)
+                assertRoundTrip(0, 16, 0, 5, 0, 0, tile, tint, 0);
+        }
+    }
+
+    @Test
+    public void roundTripsAmbientOcclusionLevels()
+    {
+        for (int level = 0; level < PackedVertex.AMBIENT_OCCLUSION_BRIGHTNESS.length; level++)
+        {
+            for (int tint : TINTS)
+                assertRoundTrip(8, 8, 8, 1, 1, 1, PackedVertex.MAX_TILES - 1, tint, level);
+        }
+    }
+
+    @Test
+    public void packsTintAndAmbientOcclusionIntoOneByte()
+    {
+        for (int level = 0; level < 4; level++)
+        {
+            for (int tint : TINTS)
+            {
+                long vertex = PackedVertex.encode(PackedVertex.MAX_POSITION, PackedVertex.MAX_POSITION, PackedVertex.MAX_POSITION, 7, PackedVertex.MAX_TILE_COORDINATE, PackedVertex.MAX_TILE_COORDINATE, PackedVertex.MAX_TILES - 1, tint, level);
+
+                int second = PackedVertex.getSecondWord(vertex);
+
+                assertEquals(tint | level << 6, second >>> 16 & 0xFF);
+                assertEquals(0, second >>> 24, "The top byte of the second word must stay unused");
+            }
+        }
+    }
+
+    @Test
+    public void usesEightBytes()
+    {
+        assertEquals(2 * Integer.BYTES, PackedVertex.BYTES);
+        assertEquals(PackedVertex.BYTES / Integer.BYTES, MeshData.VERTEX_SIZE);
+    }
+
+    private static void assertRoundTrip(int x, int y, int z, int face, int u, int v, int tile, int tint, int ambientOcclusion)
+    {
+        long vertex = PackedVertex.encode(x, y, z, face, u, v, tile, tint, ambientOcclusion);
+
+        String message = "Vertex " + x + ", " + y + ", " + z + " face " + face + " uv " + u + ", " + v + " tile " + tile + " tint " + tint + " ao " + ambientOcclusion;
+
+        assertEquals(x, PackedVertex.getX(vertex), message);
+        assertEquals(y, PackedVertex.getY(vertex), message);
+        assertEquals(z, PackedVertex.getZ(vertex), message);
+        assertEquals(face, PackedVertex.getFace(vertex), message);
+        assertEquals(u, PackedVertex.getU(vertex), message);
+        assertEquals(v, PackedVertex.getV(vertex), message);
+        assertEquals(tile, PackedVertex.getTile(vertex), message);
+        assertEquals(tint, PackedVertex.getTint(vertex), message);
+        assertEquals(ambientOcclusion, PackedVertex.getAmbientOcclusion(vertex), message);
+    }
+}
@@ -0,0 +1,95 @@
+package com.thatsoulyguy.invasion2.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkFaceSlotsTest
+{
+    @Test
+    public void keepsDistantSlotsApart()
+    {
+        ChunkFaceSlots slots = ChunkFaceSlots.create();
+
+        slots.markDirty(3);
+        slots.markDirty(5000);
+        slots.markDirty(5001);
+        slots.markDirty(5002);
+        slots.markDirty(5003);
+
+        assertArrayEquals(new int[] { 3, 4, 5000, 5004 }, getRanges(slots), "Reused and appended slots should upload apart");
+    }
+
+    @Test
+    public void mergesTouchingRanges()
+    {
+        ChunkFaceSlots slots = ChunkFaceSlots.create();
+
+        slots.markDirty(10);
+        slots.markDirty(12);
+        slots.markDirty(8);
+        slots.markDirty(11);
+        slots.markDirty(9);
+        slots.markDirty(10);
+
+        assertArrayEquals(new int[] { 8, 13 }, getRanges(slots), "Touching slots should form one range");
+    }
+
+    @Test
+    public void mergesClosestRangesPastTheLimit()
+    {
+        ChunkFaceSlots slots = ChunkFaceSlots.create();
+
+        for (int range = 0; range < ChunkFaceSlots.MAX_DIRTY_RANGES; range++)
+            slots.markDirty(range * 100);
+
+        slots.markDirty(351);
+
+        int[] ranges = getRanges(slots);
+
+        assertEquals(ChunkFaceSlots.MAX_DIRTY_RANGES * 2, ranges.length);
+
+        for (int slot : new int[] { 0, 100, 200, 300, 351, 400, 500, 600, 700 })
+            assertTrue(isCovered(ranges, slot), "Slot " + slot + " should stay dirty");
+    }
+
+    @Test
+    public void clearsDirtyRanges()
+    {
+        ChunkFaceSlots slots = ChunkFaceSlots.create();
+
+        slots.markDirty(1);
+        slots.markDirty(7);
+        slots.clearDirty();
+
+        assertFalse(slots.isDirty(), "No slot should be dirty after clearing");
+        assertEquals(0, slots.getDirtyRangeCount());
+    }
+
+    private static int[] getRanges(ChunkFaceSlots slots)
+    {
+        int[] result = new int[slots.getDirtyRangeCount() * 2];
+
+        for (int range = 0; range < slots.getDirtyRangeCount(); range++)
+        {
+            result[range * 2] = slots.getDirtyRangeStart(range);
+            result[range * 2 + 1] = slots.getDirtyRangeEnd(range);
+        }
+
+        return result;
+    }
+
+    private static boolean isCovered(int[] ranges, int slot)
+    {
+        for (int range = 0; range < ranges.length; range += 2)
+        {
+            if (slot >= ranges[range] && slot < ranges[range + 1])
+                return true;
+        }
+
+        return false;
+    }
+}
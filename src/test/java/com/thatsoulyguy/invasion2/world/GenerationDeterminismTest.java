@@ -0,0 +1,112 @@
+package com.thatsoulyguy.invasion2.world;
+
+import com.thatsoulyguy.invasion2.block.BlockRegistry;
+import com.thatsoulyguy.invasion2.world.terraingenerators.CaveTerrainGenerator;
+import com.thatsoulyguy.invasion2.world.terraingenerators.GroundTerrainGenerator;
+import com.thatsoulyguy.invasion2.world.terraingenerators.TreeTerrainGenerator;
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector2i;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GenerationDeterminismTest
+{
+    private static final int RADIUS = 2;
+    private static final int THREADS = 4;
+
+    @Test
+    public void generatesTheSameBlocksOnAnyThreadsInAnyOrder() throws Exception
+    {
+        List<Vector2i> positions = new ArrayList<>();
+
+        for (int x = -RADIUS; x <= RADIUS; x++)
+        {
+            for (int z = -RADIUS; z <= RADIUS; z++)
+                positions.add(new Vector2i(x, z));
+        }
+
+        Map<Vector2i, short[][]> expected = generate(positions, 1);
+
+        List<Vector2i> shuffled = new ArrayList<>(positions);
+
+        Collections.shuffle(shuffled, new Random(2));
+
+        Map<Vector2i, short[][]> actual = generate(shuffled, THREADS);
+
+        for (Vector2i position : positions)
+        {
+            for (int y = 0; y < World.VERTICAL_CHUNKS; y++)
+                assertArrayEquals(expected.get(position)[y], actual.get(position)[y], "Column " + position + ", section " + y + " differs");
+        }
+
+        assertTrue(contains(expected, BlockRegistry.BLOCK_LOG_OAK.getId()), "No trees were generated, so they weren't compared");
+    }
+
+    private static @NotNull Map<Vector2i, short[][]> generate(@NotNull List<Vector2i> positions, int threads) throws Exception
+    {
+        World world = World.create("test");
+
+        world.addTerrainGenerator(TerrainGenerator.create(GroundTerrainGenerator.class));
+        world.addTerrainGenerator(TerrainGenerator.create(CaveTerrainGenerator.class));
+        world.addTerrainGenerator(TerrainGenerator.create(TreeTerrainGenerator.class));
+
+        ChunkGenerationExecutor executor = ChunkGenerationExecutor.create(position -> 0.0, threads);
+
+        try
+        {
+            ChunkGenerationPipeline pipeline = ChunkGenerationPipeline.create(world, executor);
+            Map<Vector2i, CompletableFuture<ChunkColumn>> futures = new LinkedHashMap<>();
+
+            for (Vector2i position : positions)
+                futures.put(position, pipeline.generate(position));
+
+            Map<Vector2i, short[][]> result = new HashMap<>();
+
+            for (Map.Entry<Vector2i, CompletableFuture<ChunkColumn>> entry : futures.entrySet())
+                result.put(entry.getKey(), copyBlocks(entry.getValue().get(60, TimeUnit.SECONDS)));
+
+            return result;
+        }
+        finally
+        {
+            executor.shutdown(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static short @NotNull [][] copyBlocks(@NotNull ChunkColumn column)
+    {
+        PalettedBlockStorage[] sections = World.getBlockStorage(column);
+        short[][] result = new short[sections.length][PalettedBlockStorage.VOLUME];
+
+        for (int y = 0; y < sections.length; y++)
+        {
+            for (int index = 0; index < PalettedBlockStorage.VOLUME; index++)
+                result[y][index] = sections[y].get(index);
+        }
+
+        return result;
+    }
+
+    private static boolean contains(@NotNull Map<Vector2i, short[][]> columns, short block)
+    {
+        for (short[][] column : columns.values())
+        {
+            for (short[] section : column)
+            {
+                for (short value : section)
+                {
+                    if (value == block)
+                        return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
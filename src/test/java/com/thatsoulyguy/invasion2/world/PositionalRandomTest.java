@@ -0,0 +1,61 @@
+package com.thatsoulyguy.invasion2.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PositionalRandomTest
+{
+    private static final long SEED = 354576879657L;
+    private static final long SALT = 0x7472656573L;
+
+    @Test
+    public void hashIsStable()
+    {
+        assertEquals(-1989723720915293039L, PositionalRandom.hash(SEED, 0, 0, 0));
+        assertEquals(-191009315435317283L, PositionalRandom.hash(SEED, 12, -7, SALT));
+        assertEquals(1401245979484724958L, PositionalRandom.hash(-1L, Integer.MIN_VALUE, Integer.MAX_VALUE, 1));
+        assertEquals(4174627344968794080L, PositionalRandom.hash(SEED, 3, 64, -9, 42));
+    }
+
+    @Test
+    public void derivedValuesAreStable()
+    {
+        assertEquals(17, PositionalRandom.nextInt(SEED, 12, -7, SALT, 50));
+        assertEquals(0, PositionalRandom.nextInt(SEED, -100, 250, 5, 7));
+        assertEquals(0.98964536f, PositionalRandom.nextFloat(SEED, 12, -7, SALT));
+        assertEquals(0.8921368f, PositionalRandom.nextFloat(SEED, 0, 0, 0));
+    }
+
+    @Test
+    public void derivedValuesStayInRange()
+    {
+        for (int x = -64; x < 64; x++)
+        {
+            for (int z = -64; z < 64; z++)
+            {
+                int value = PositionalRandom.nextInt(SEED, x, z, SALT, 13);
+                float fraction = PositionalRandom.nextFloat(SEED, x, z, SALT);
+
+                assertTrue(value >= 0 && value < 13, "nextInt out of range at " + x + ", " + z);
+                assertTrue(fraction >= 0.0f && fraction < 1.0f, "nextFloat out of range at " + x + ", " + z);
+                assertEquals(value == 0, PositionalRandom.oneIn(SEED, x, z, SALT, 13));
+            }
+        }
+    }
+
+    @Test
+    public void everyInputChangesTheHash()
+    {
+        long hash = PositionalRandom.hash(SEED, 5, 6, 7, SALT);
+
+        assertNotEquals(hash, PositionalRandom.hash(SEED + 1, 5, 6, 7, SALT));
+        assertNotEquals(hash, PositionalRandom.hash(SEED, 6, 6, 7, SALT));
+        assertNotEquals(hash, PositionalRandom.hash(SEED, 5, 7, 7, SALT));
+        assertNotEquals(hash, PositionalRandom.hash(SEED, 5, 6, 8, SALT));
+        assertNotEquals(hash, PositionalRandom.hash(SEED, 5, 6, 7, SALT + 1));
+        assertNotEquals(PositionalRandom.hash(SEED, 5, 7, SALT), PositionalRandom.hash(SEED, 7, 5, SALT));
+    }
+}